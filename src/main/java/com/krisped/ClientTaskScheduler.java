@@ -0,0 +1,157 @@
+package com.krisped;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.callback.ClientThread;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The plugin's single way onto the client thread. Tasks are queued by priority and
+ * drained by one pump that runs once per client frame with a fixed time budget; a job
+ * that returns false has more to do and is carried over to a later step (and frame).
+ * At least one step runs per frame, so a busy frame delays plugin work but never stalls it.
+ * Time spent is recorded and logged at debug as client-thread occupancy.
+ */
+@Slf4j
+public final class ClientTaskScheduler
+{
+    public enum Priority
+    {
+        /** The user is waiting on the result (slot info, copy equipped, visible icons). */
+        INTERACTIVE,
+        /** User-triggered work that may take a few frames (exports, webhooks). */
+        NORMAL,
+        /** Index builds and prefetching; runs with whatever budget is left. */
+        BULK
+    }
+
+    private static final long FRAME_BUDGET_NANOS = TimeUnit.MICROSECONDS.toNanos(3_000);
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private static final ArrayDeque<BooleanSupplier>[] QUEUES = newQueues();
+    private static boolean pumping;
+
+    // Occupancy since the last report; only touched on the client thread
+    private static long windowStart = System.nanoTime();
+    private static long busyNanos;
+    private static long maxStepNanos;
+    private static int frames;
+    private static int steps;
+    private static int deferredFrames; // frames that ended with work still queued
+    private static volatile String report = "Client thread: idle";
+
+    private ClientTaskScheduler() {}
+
+    @SuppressWarnings("unchecked")
+    private static ArrayDeque<BooleanSupplier>[] newQueues()
+    {
+        ArrayDeque<BooleanSupplier>[] q = new ArrayDeque[Priority.values().length];
+        for (int i = 0; i < q.length; i++) q[i] = new ArrayDeque<>();
+        return q;
+    }
+
+    /** Runs {@code task} once on the client thread. */
+    public static void submit(ClientThread clientThread, Priority priority, Runnable task)
+    {
+        submitJob(clientThread, priority, () -> { task.run(); return true; });
+    }
+
+    /**
+     * Runs {@code job} on the client thread until it returns true; each call should do a
+     * bounded slice of work so the frame budget can be honoured.
+     */
+    public static void submitJob(ClientThread clientThread, Priority priority, BooleanSupplier job)
+    {
+        synchronized (ClientTaskScheduler.class)
+        {
+            QUEUES[priority.ordinal()].addLast(job);
+            if (pumping) return;
+            pumping = true;
+        }
+        clientThread.invokeLater((BooleanSupplier) ClientTaskScheduler::pump);
+    }
+
+    /** Latest occupancy summary, for status tooltips. */
+    public static String describe() { return report; }
+
+    /** One frame's worth of queued work; returns false (run again next frame) while work remains. */
+    private static boolean pump()
+    {
+        long frameStart = System.nanoTime();
+        long deadline = frameStart + FRAME_BUDGET_NANOS;
+        boolean more;
+        do
+        {
+            BooleanSupplier job;
+            int priority;
+            synchronized (ClientTaskScheduler.class)
+            {
+                priority = firstNonEmpty();
+                if (priority < 0)
+                {
+                    pumping = false;
+                    account(frameStart, false);
+                    return true;
+                }
+                job = QUEUES[priority].pollFirst();
+            }
+
+            long t0 = System.nanoTime();
+            boolean done;
+            try { done = job.getAsBoolean(); }
+            catch (Exception ex)
+            {
+                log.warn("Client-thread task failed", ex);
+                done = true;
+            }
+            long spent = System.nanoTime() - t0;
+            steps++;
+            if (spent > maxStepNanos) maxStepNanos = spent;
+
+            synchronized (ClientTaskScheduler.class)
+            {
+                if (!done) QUEUES[priority].addLast(job); // behind its peers, so equal jobs share the budget
+                more = firstNonEmpty() >= 0;
+            }
+        }
+        while (more && System.nanoTime() < deadline);
+
+        synchronized (ClientTaskScheduler.class)
+        {
+            // Re-checked under the lock: a submit after the loop must not be stranded
+            if (firstNonEmpty() < 0)
+            {
+                pumping = false;
+                account(frameStart, false);
+                return true;
+            }
+        }
+        account(frameStart, true);
+        return false;
+    }
+
+    private static int firstNonEmpty()
+    {
+        for (int i = 0; i < QUEUES.length; i++) if (!QUEUES[i].isEmpty()) return i;
+        return -1;
+    }
+
+    private static void account(long frameStart, boolean deferred)
+    {
+        long now = System.nanoTime();
+        busyNanos += now - frameStart;
+        frames++;
+        if (deferred) deferredFrames++;
+        long window = now - windowStart;
+        if (window < REPORT_INTERVAL_NANOS) return;
+
+        report = String.format("Client thread: %.2f%% occupied over %ds (%d frames, %d steps, %d over budget, max step %.1f ms)",
+                100.0 * busyNanos / window, window / 1_000_000_000L, frames, steps, deferredFrames, maxStepNanos / 1e6);
+        log.debug(report);
+        windowStart = now;
+        busyNanos = maxStepNanos = 0;
+        frames = steps = deferredFrames = 0;
+    }
+}
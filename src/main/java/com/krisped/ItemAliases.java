@@ -0,0 +1,148 @@
+package com.krisped;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Shorthand item names ("bgs", "ppot", "tbow") mapped to full item names, consulted
+ * before name resolution. Three sources, later ones overriding earlier ones:
+ *   bundled  /com/krisped/aliases.txt
+ *   learned  ~/.kp/aliases-learned.txt (written when an unresolved import name is picked by hand)
+ *   user     ~/.kp/aliases.txt (never written by the plugin)
+ * Each line is {@code alias = Item name}; '#' starts a comment. Loaded on first lookup.
+ */
+@Slf4j
+public class ItemAliases
+{
+    private static final String BUNDLED = "aliases.txt";
+    private static final String USER_FILE = "aliases.txt";
+    private static final String LEARNED_FILE = "aliases-learned.txt";
+
+    /** Appends to the learned file off the caller's thread (corrections are made on the EDT). */
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ItemAliases");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private ItemAliases() {}
+
+    /** Loaded on first use, so plugin startup never reads the alias files. */
+    private static final class Holder
+    {
+        static final Map<String, String> LEARNED = new HashMap<>();
+        static final Map<String, String> USER = new HashMap<>();
+        static final Map<String, String> ALIASES = load();
+
+        private static Map<String, String> load()
+        {
+            long t0 = System.nanoTime();
+            Map<String, String> m = new HashMap<>(256);
+            try (InputStream in = ItemAliases.class.getResourceAsStream(BUNDLED))
+            {
+                if (in != null) read(in, m);
+            }
+            catch (IOException ignored) {}
+            readFile(new File(dir(), LEARNED_FILE), LEARNED);
+            m.putAll(LEARNED);
+            readFile(new File(dir(), USER_FILE), USER);
+            m.putAll(USER);
+            log.debug("Item aliases loaded: {} entries in {} ms", m.size(), (System.nanoTime() - t0) / 1_000_000);
+            return m;
+        }
+    }
+
+    /** Full item name for an alias, or null when {@code name} is not an alias. */
+    public static String lookup(String name)
+    {
+        String key = key(name);
+        if (key.isEmpty()) return null;
+        synchronized (ItemAliases.class)
+        {
+            return Holder.ALIASES.get(key);
+        }
+    }
+
+    /**
+     * Remembers a manual correction: {@code alias} now resolves to {@code itemName}.
+     * Appended to the learned file in the background. Aliases defined in the user file are
+     * left alone, as that file always wins.
+     */
+    public static void learn(String alias, String itemName)
+    {
+        String key = key(alias);
+        String name = itemName == null ? "" : itemName.trim();
+        if (key.isEmpty() || name.isEmpty() || key.equals(key(name))) return;
+        synchronized (ItemAliases.class)
+        {
+            if (Holder.USER.containsKey(key) || name.equals(Holder.LEARNED.get(key))) return;
+            Holder.LEARNED.put(key, name);
+            Holder.ALIASES.put(key, name);
+        }
+        WRITER.execute(() -> append(key + " = " + name + "\n"));
+    }
+
+    private static void append(String line)
+    {
+        File dir = dir();
+        if (!dir.exists()) dir.mkdirs();
+        try (Writer w = new OutputStreamWriter(new FileOutputStream(new File(dir, LEARNED_FILE), true), StandardCharsets.UTF_8))
+        {
+            w.write(line);
+        }
+        catch (IOException ignored) {}
+    }
+
+    /* ================= Parsing ================= */
+
+    private static void readFile(File f, Map<String, String> into)
+    {
+        if (!f.isFile()) return;
+        try (InputStream in = new FileInputStream(f))
+        {
+            read(in, into);
+        }
+        catch (IOException ignored) {}
+    }
+
+    private static void read(InputStream in, Map<String, String> into) throws IOException
+    {
+        BufferedReader r = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = r.readLine()) != null)
+        {
+            int hash = line.indexOf('#');
+            if (hash >= 0) line = line.substring(0, hash);
+            int eq = line.indexOf('=');
+            if (eq <= 0) continue;
+            String alias = key(line.substring(0, eq));
+            String name = line.substring(eq + 1).trim();
+            if (!alias.isEmpty() && !name.isEmpty()) into.put(alias, name); // later lines win
+        }
+    }
+
+    private static String key(String s)
+    {
+        return s == null ? "" : s.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static File dir()
+    {
+        return new File(System.getProperty("user.home"), ".kp");
+    }
+}
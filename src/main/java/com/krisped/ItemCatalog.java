@@ -0,0 +1,308 @@
+package com.krisped;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.ItemComposition;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.game.ItemManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Immutable, columnar snapshot of the item catalog (names, flags, actions).
+ * Captured once on the client thread in chunks; afterwards it is read-only and
+ * safe to scan from any thread. Rows are in ascending item id order.
+ */
+@Slf4j
+public class ItemCatalog
+{
+    // Heuristic upper bound – RuneLite item IDs currently < 60k.
+    static final int MAX_ITEM_ID = 60_000;
+    private static final int BUILD_CHUNK = 250; // ids captured per scheduler step; small enough to fit the frame budget
+
+    /* Flag bits (one int per row) */
+    static final int STACKABLE   = 1;
+    static final int NOTED       = 1 << 1;
+    static final int PLACEHOLDER = 1 << 2;
+    static final int NORMAL      = 1 << 3;
+    static final int MEMBERS     = 1 << 4;
+    static final int WEARABLE    = 1 << 5;
+    static final int CONSUMABLE  = 1 << 6;
+    private static final int FLAG_COUNT = 7;
+
+    private static final String MEMBERS_SUFFIX_REGEX = "(?i) \\((members)\\)$";
+    private static final String[] CONSUME_ACTIONS = {
+            "eat","drink","sip","quaff","guzzle","consume","bite","nibble","swallow" };
+
+    private static volatile ItemCatalog current;
+    private static CompletableFuture<ItemCatalog> pending;
+    private static int revisionCounter;
+
+    /* Columns */
+    final int revision;
+    final int[] ids;
+    final String[] names;      // sanitized display names
+    final String[] lowerNames; // lower-cased for matching
+    final int[] flags;
+    final int[] links;         // unnoted / real item id of a noted or placeholder row, else -1
+    final String[][] actions;
+    private final int[] nameRank; // position of each row in case-insensitive name order (ids break ties)
+    private final int[] byName;   // rows in that order; the inverse of nameRank
+    private final int[] rowById;
+    private final long[][] flagSets; // one bitset over rows per flag bit
+
+    private ItemCatalog(int revision, int[] ids, String[] names, int[] flags, int[] links, String[][] actions)
+    {
+        this.revision = revision;
+        this.ids = ids;
+        this.names = names;
+        this.flags = flags;
+        this.links = links;
+        this.actions = actions;
+        this.lowerNames = new String[names.length];
+        for (int i = 0; i < names.length; i++) lowerNames[i] = names[i].toLowerCase(Locale.ROOT);
+        Integer[] byName = new Integer[names.length];
+        for (int i = 0; i < byName.length; i++) byName[i] = i;
+        Arrays.sort(byName, (a, b) -> {
+            int c = lowerNames[a].compareTo(lowerNames[b]);
+            return c != 0 ? c : Integer.compare(a, b);
+        });
+        this.nameRank = new int[names.length];
+        this.byName = new int[names.length];
+        for (int i = 0; i < byName.length; i++)
+        {
+            nameRank[byName[i]] = i;
+            this.byName[i] = byName[i];
+        }
+        this.rowById = new int[MAX_ITEM_ID + 1];
+        Arrays.fill(rowById, -1);
+        for (int i = 0; i < ids.length; i++) rowById[ids[i]] = i;
+        this.flagSets = new long[FLAG_COUNT][words()];
+        for (int row = 0; row < flags.length; row++)
+        {
+            int f = flags[row];
+            while (f != 0)
+            {
+                int bit = Integer.numberOfTrailingZeros(f);
+                flagSets[bit][row >>> 6] |= 1L << row;
+                f &= f - 1;
+            }
+        }
+    }
+
+    /* ================= Access ================= */
+
+    public int size()                     { return ids.length; }
+    public int id(int row)                { return ids[row]; }
+    public String name(int row)           { return names[row]; }
+    public boolean has(int row, int flag) { return (flags[row] & flag) != 0; }
+    public List<String> actions(int row)  { return Collections.unmodifiableList(Arrays.asList(actions[row])); }
+
+    /** Rank of the row in name order; rows are already in id order, so the row is its own id rank. */
+    public int nameRank(int row)          { return nameRank[row]; }
+
+    /**
+     * Rows whose lower-cased name starts with {@code lowerPrefix}, in name order. Names are
+     * sorted, so this is one binary search plus the matching run: no scan of the catalog.
+     */
+    public int[] rowsWithPrefix(String lowerPrefix)
+    {
+        int lo = 0, hi = byName.length;
+        while (lo < hi)
+        {
+            int mid = (lo + hi) >>> 1;
+            if (lowerNames[byName[mid]].compareTo(lowerPrefix) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        int end = lo;
+        while (end < byName.length && lowerNames[byName[end]].startsWith(lowerPrefix)) end++;
+        return Arrays.copyOfRange(byName, lo, end);
+    }
+
+    /** Number of longs in a bitset over all rows. */
+    public int words() { return (ids.length + 63) >>> 6; }
+
+    /** Rows carrying {@code flag} as a bitset (bit {@code row} set). Shared; do not modify. */
+    long[] rowsWith(int flag) { return flagSets[Integer.numberOfTrailingZeros(flag)]; }
+
+    /** Catalog row for an item id, or -1 when the id is not part of the snapshot. */
+    public int row(int itemId)
+    {
+        if (itemId <= 0 || itemId > MAX_ITEM_ID) return -1;
+        return rowById[itemId];
+    }
+
+    /* ================= Loading ================= */
+
+    /** Snapshot if already captured, otherwise null. */
+    public static ItemCatalog peek() { return current; }
+
+    /**
+     * Returns the shared snapshot, capturing it on the client thread first if needed.
+     * The capture runs as a bulk {@link ClientTaskScheduler} job in small steps, so each
+     * frame only spends the scheduler's budget on it.
+     */
+    public static synchronized CompletableFuture<ItemCatalog> load(ItemManager itemManager, ClientThread clientThread)
+    {
+        if (current != null) return CompletableFuture.completedFuture(current);
+        if (pending != null) return pending;
+        CompletableFuture<ItemCatalog> f = new CompletableFuture<>();
+        pending = f;
+        ClientTaskScheduler.submitJob(clientThread, ClientTaskScheduler.Priority.BULK, new Builder(itemManager));
+        return f;
+    }
+
+    private static synchronized void publish(ItemCatalog catalog, Throwable error)
+    {
+        CompletableFuture<ItemCatalog> f = pending;
+        pending = null;
+        if (catalog != null)
+        {
+            current = catalog;
+            ItemVariants.buildInBackground(catalog);
+        }
+        if (f == null) return;
+        if (error != null) f.completeExceptionally(error); else f.complete(catalog);
+    }
+
+    private static synchronized int nextRevision() { return ++revisionCounter; }
+
+    /** Snapshot of the given rows (ids ascending, names already sanitized) built without a client; for tests. */
+    static ItemCatalog of(int[] ids, String[] names, int[] flags)
+    {
+        int[] links = new int[ids.length];
+        Arrays.fill(links, -1);
+        return new ItemCatalog(nextRevision(), ids, names, flags, links, new String[ids.length][0]);
+    }
+
+    private static final class Builder implements BooleanSupplier
+    {
+        private final ItemManager itemManager;
+        private final long started = System.nanoTime();
+        private final List<Integer> ids = new ArrayList<>(16_000);
+        private final List<String> names = new ArrayList<>(16_000);
+        private final List<Integer> flags = new ArrayList<>(16_000);
+        private final List<Integer> links = new ArrayList<>(16_000);
+        private final List<String[]> actions = new ArrayList<>(16_000);
+        private int next = 1;
+
+        Builder(ItemManager itemManager)
+        {
+            this.itemManager = itemManager;
+        }
+
+        @Override
+        public boolean getAsBoolean()
+        {
+            try
+            {
+                int end = Math.min(MAX_ITEM_ID + 1, next + BUILD_CHUNK);
+                for (; next < end; next++) capture(next);
+                if (next <= MAX_ITEM_ID) return false;
+
+                int n = ids.size();
+                int[] idCol = new int[n];
+                int[] flagCol = new int[n];
+                int[] linkCol = new int[n];
+                for (int i = 0; i < n; i++)
+                {
+                    idCol[i] = ids.get(i);
+                    flagCol[i] = flags.get(i);
+                    linkCol[i] = links.get(i);
+                }
+                ItemCatalog catalog = new ItemCatalog(nextRevision(), idCol,
+                        names.toArray(new String[0]), flagCol, linkCol, actions.toArray(new String[0][]));
+                log.debug("Item catalog captured: {} items in {} ms", n, (System.nanoTime() - started) / 1_000_000);
+                publish(catalog, null);
+            }
+            catch (Exception ex)
+            {
+                publish(null, ex);
+            }
+            return true;
+        }
+
+        private void capture(int id)
+        {
+            try
+            {
+                ItemComposition comp = itemManager.getItemComposition(id);
+                if (comp == null) return;
+                String name = sanitizeName(comp.getName());
+                if (name.isEmpty()) return;
+
+                boolean placeholder = comp.getPlaceholderId() != -1 && comp.getPlaceholderTemplateId() != -1;
+                boolean noted = comp.getNote() != -1 && comp.getLinkedNoteId() != -1;
+                String[] act = extractActions(comp);
+
+                int f = 0;
+                if (comp.isStackable() || noted) f |= STACKABLE;
+                if (noted) f |= NOTED;
+                if (placeholder) f |= PLACEHOLDER;
+                if (!(placeholder || noted)) f |= NORMAL;
+                if (comp.isMembers()) f |= MEMBERS;
+                if (isWearable(act)) f |= WEARABLE;
+                if (!noted && !placeholder && isConsumable(act)) f |= CONSUMABLE; // exclude noted & placeholder variants
+
+                ids.add(id);
+                names.add(name);
+                flags.add(f);
+                links.add(noted ? comp.getLinkedNoteId() : placeholder ? comp.getPlaceholderId() : -1);
+                actions.add(act);
+            }
+            catch (Exception ignored) {}
+        }
+    }
+
+    /* ================= Helpers ================= */
+
+    static String sanitizeName(String s)
+    {
+        if (s == null) return "";
+        String cleaned = s.replaceAll(MEMBERS_SUFFIX_REGEX, "").trim();
+        return cleaned.equalsIgnoreCase("null") ? "" : cleaned;
+    }
+
+    private static String[] extractActions(ItemComposition comp)
+    {
+        List<String> act = new ArrayList<>();
+        String[] inv = comp.getInventoryActions();
+        if (inv != null)
+        {
+            for (String a : inv)
+                if (a != null && !a.equalsIgnoreCase("null") && !a.trim().isEmpty())
+                    act.add(a);
+        }
+        if (!act.contains("Examine")) act.add("Examine");
+        return act.toArray(new String[0]);
+    }
+
+    private static boolean isWearable(String[] actions)
+    {
+        for (String a : actions)
+        {
+            String x = a.toLowerCase(Locale.ROOT);
+            if (x.contains("wear") || x.contains("wield") || x.contains("equip")) return true;
+        }
+        return false;
+    }
+
+    private static boolean isConsumable(String[] actions)
+    {
+        for (String raw : actions)
+        {
+            String a = raw.trim().toLowerCase(Locale.ROOT);
+            for (String base : CONSUME_ACTIONS)
+            {
+                if (a.equals(base) || a.startsWith(base + " "))
+                    return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,110 @@
+package com.krisped;
+
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.game.ItemManager;
+import net.runelite.client.util.AsyncBufferedImage;
+
+import javax.swing.SwingUtilities;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Shared, bounded LRU of item icons.
+ * Icons are fetched on the client thread in batches; callers are told on the EDT
+ * which ids arrived so they can repaint just the affected cells.
+ */
+public class ItemIconCache
+{
+    private static final int CAPACITY = 512;
+
+    private static final Map<Integer, BufferedImage> CACHE = new LinkedHashMap<Integer, BufferedImage>(CAPACITY, 0.75f, true)
+    {
+        @Override protected boolean removeEldestEntry(Map.Entry<Integer, BufferedImage> eldest) { return size() > CAPACITY; }
+    };
+    /** Ids being fetched, each with every caller waiting for it (a null-callback load waits silently). */
+    private static final Map<Integer, List<Consumer<Set<Integer>>>> IN_FLIGHT = new HashMap<>();
+
+    private ItemIconCache() {}
+
+    /** Cached icon, or null when it has not been fetched (or was evicted). */
+    public static synchronized BufferedImage get(int itemId)
+    {
+        return CACHE.get(itemId);
+    }
+
+    /**
+     * Fetches the icons that are neither cached nor already in flight, in one client-thread task.
+     * {@code onLoaded} runs on the EDT with the ids that arrived, including ids another caller
+     * had already put in flight; icons that are still being decoded by the client report again
+     * once their pixels are ready.
+     */
+    public static void load(Collection<Integer> itemIds, ItemManager itemManager, ClientThread clientThread,
+                            Consumer<Set<Integer>> onLoaded)
+    {
+        List<Integer> todo = new ArrayList<>();
+        synchronized (ItemIconCache.class)
+        {
+            for (Integer id : itemIds)
+            {
+                if (id == null || id <= 0 || CACHE.containsKey(id)) continue;
+                List<Consumer<Set<Integer>>> waiters = IN_FLIGHT.get(id);
+                if (waiters == null)
+                {
+                    IN_FLIGHT.put(id, waiters = new ArrayList<>(1));
+                    todo.add(id);
+                }
+                if (onLoaded != null && !waiters.contains(onLoaded)) waiters.add(onLoaded);
+            }
+        }
+        if (todo.isEmpty()) return;
+
+        ClientTaskScheduler.submit(clientThread, ClientTaskScheduler.Priority.INTERACTIVE, () -> {
+            Map<Integer, BufferedImage> fetched = new HashMap<>();
+            for (int id : todo)
+            {
+                try
+                {
+                    BufferedImage img = itemManager.getImage(id);
+                    if (img != null) fetched.put(id, img);
+                }
+                catch (Exception ignored) {}
+            }
+            // each waiter hears about the ids it asked for, whichever load put them in flight
+            Map<Consumer<Set<Integer>>, Set<Integer>> byWaiter = new LinkedHashMap<>();
+            synchronized (ItemIconCache.class)
+            {
+                for (int id : todo)
+                {
+                    List<Consumer<Set<Integer>>> waiters = IN_FLIGHT.remove(id);
+                    if (waiters == null || !fetched.containsKey(id)) continue;
+                    for (Consumer<Set<Integer>> w : waiters) byWaiter.computeIfAbsent(w, k -> new HashSet<>()).add(id);
+                }
+                CACHE.putAll(fetched);
+            }
+            for (Map.Entry<Consumer<Set<Integer>>, Set<Integer>> e : byWaiter.entrySet())
+            {
+                Consumer<Set<Integer>> waiter = e.getKey();
+                Set<Integer> ids = Collections.unmodifiableSet(e.getValue());
+                SwingUtilities.invokeLater(() -> waiter.accept(ids));
+                for (int id : ids)
+                {
+                    BufferedImage img = fetched.get(id);
+                    if (img instanceof AsyncBufferedImage)
+                    {
+                        Set<Integer> one = Collections.singleton(id);
+                        ((AsyncBufferedImage) img).onLoaded(() -> SwingUtilities.invokeLater(() -> waiter.accept(one)));
+                    }
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,182 @@
+package com.krisped;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.callback.ClientThread;
+
+import javax.swing.SwingUtilities;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntFunction;
+
+/**
+ * Name, icon and stackability for loadout slots. Requests for an id that is already
+ * in flight join its pending future instead of looking it up again, so twenty sharks
+ * cost one composition and one icon lookup. All bookkeeping happens on the EDT; only
+ * the lookups themselves run on the client thread, one task per batch. Resolved info
+ * is kept in a bounded LRU that {@link #prefetch} can fill ahead of time.
+ */
+@Slf4j
+public class ItemInfoResolver
+{
+    /** Resolved item info; fields are null/false when the lookup failed. */
+    public static final class ItemInfo
+    {
+        public static final ItemInfo NONE = new ItemInfo(null, null, false);
+
+        public final String name;
+        public final BufferedImage icon;
+        public final boolean stackable;
+
+        public ItemInfo(String name, BufferedImage icon, boolean stackable)
+        {
+            this.name = name;
+            this.icon = icon;
+            this.stackable = stackable;
+        }
+    }
+
+    private static final int CACHE_CAPACITY = 1024;
+    private static final int PREFETCH_BATCH = 16; // ids looked up per bulk scheduler step
+
+    private final ClientThread clientThread;
+    private final IntFunction<ItemInfo> lookup; // runs on the client thread
+
+    private final Map<Integer, CompletableFuture<ItemInfo>> pending = new HashMap<>();
+    private final Map<Integer, ItemInfo> cache = new LinkedHashMap<Integer, ItemInfo>(256, 0.75f, true)
+    {
+        @Override protected boolean removeEldestEntry(Map.Entry<Integer, ItemInfo> eldest) { return size() > CACHE_CAPACITY; }
+    };
+    private long requests;  // slot requests seen
+    private long cacheHits; // requests answered from the cache without a client-thread trip
+    private long lookups;   // ids actually looked up for slots
+    private long prefetched; // ids looked up ahead of time
+    private long discarded; // results dropped because the slot changed item
+
+    public ItemInfoResolver(ClientThread clientThread, IntFunction<ItemInfo> lookup)
+    {
+        this.clientThread = clientThread;
+        this.lookup = lookup;
+    }
+
+    /**
+     * Resolves every slot's current item (EDT only). Cached items are applied right away;
+     * the rest arrive in one EDT pass per client-thread batch. A slot whose item changed
+     * in the meantime is left alone, as its newer item has a request of its own.
+     */
+    public void resolve(List<LoadoutSlot> slots)
+    {
+        List<Integer> fresh = new ArrayList<>();
+        for (LoadoutSlot slot : slots)
+        {
+            int id = slot.getItemId();
+            if (id <= 0) continue;
+            requests++;
+            ItemInfo cached = cache.get(id);
+            if (cached != null)
+            {
+                cacheHits++;
+                slot.setResolvedItemInfo(cached.name, cached.icon, cached.stackable);
+                continue;
+            }
+            CompletableFuture<ItemInfo> f = pending.get(id);
+            if (f == null)
+            {
+                pending.put(id, f = new CompletableFuture<>());
+                fresh.add(id);
+            }
+            f.thenAccept(info -> {
+                if (slot.getItemId() != id) { discarded++; return; }
+                slot.setResolvedItemInfo(info.name, info.icon, info.stackable);
+            });
+        }
+        if (fresh.isEmpty()) return;
+        lookups += fresh.size();
+
+        ClientTaskScheduler.submit(clientThread, ClientTaskScheduler.Priority.INTERACTIVE, () -> {
+            ItemInfo[] infos = lookupAll(fresh);
+            SwingUtilities.invokeLater(() -> {
+                complete(fresh, infos);
+                if (log.isDebugEnabled())
+                    log.debug("Item info: {} requests, {} cached, {} lookups ({} coalesced, ratio {}), {} stale discarded, {} prefetched",
+                            requests, cacheHits, lookups, requests - cacheHits - lookups,
+                            String.format("%.2f", lookups == 0 ? 0.0 : (double) (requests - cacheHits) / lookups), discarded, prefetched);
+            });
+        });
+    }
+
+    /**
+     * Looks up {@code itemIds} ahead of need (EDT only) as a bulk scheduler job in small
+     * batches, so slots showing them later resolve from the cache in the same frame.
+     * Ids already cached or in flight are skipped; a slot request for an id that is being
+     * prefetched joins it.
+     */
+    public void prefetch(Collection<Integer> itemIds)
+    {
+        List<Integer> todo = new ArrayList<>();
+        for (Integer id : itemIds)
+        {
+            if (id == null || id <= 0 || cache.containsKey(id) || pending.containsKey(id)) continue;
+            pending.put(id, new CompletableFuture<>());
+            todo.add(id);
+        }
+        if (todo.isEmpty()) return;
+        prefetched += todo.size();
+        ClientTaskScheduler.submitJob(clientThread, ClientTaskScheduler.Priority.BULK, new Prefetch(todo));
+    }
+
+    /** Client thread only. */
+    private ItemInfo[] lookupAll(List<Integer> ids)
+    {
+        ItemInfo[] infos = new ItemInfo[ids.size()];
+        for (int i = 0; i < infos.length; i++)
+        {
+            try { infos[i] = lookup.apply(ids.get(i)); }
+            catch (Exception ex) { infos[i] = null; }
+            if (infos[i] == null) infos[i] = ItemInfo.NONE;
+        }
+        return infos;
+    }
+
+    /** EDT only. Failed lookups are not cached, so the next request tries again. */
+    private void complete(List<Integer> ids, ItemInfo[] infos)
+    {
+        for (int i = 0; i < infos.length; i++)
+        {
+            if (infos[i] != ItemInfo.NONE) cache.put(ids.get(i), infos[i]);
+            CompletableFuture<ItemInfo> f = pending.remove(ids.get(i));
+            if (f != null) f.complete(infos[i]);
+        }
+    }
+
+    private final class Prefetch implements BooleanSupplier
+    {
+        private final List<Integer> ids;
+        private final long started = System.nanoTime();
+        private int next = 0;
+
+        Prefetch(List<Integer> ids)
+        {
+            this.ids = ids;
+        }
+
+        @Override
+        public boolean getAsBoolean()
+        {
+            int end = Math.min(ids.size(), next + PREFETCH_BATCH);
+            List<Integer> batch = ids.subList(next, end);
+            ItemInfo[] infos = lookupAll(batch);
+            SwingUtilities.invokeLater(() -> complete(batch, infos));
+            next = end;
+            if (next < ids.size()) return false;
+            log.debug("Item info prefetched: {} ids in {} ms", ids.size(), (System.nanoTime() - started) / 1_000_000);
+            return true;
+        }
+    }
+}
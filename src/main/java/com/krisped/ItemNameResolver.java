@@ -0,0 +1,337 @@
+package com.krisped;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves free-text item names (Repcal imports, pasted gear lists) to item ids.
+ * Built once per {@link ItemCatalog} revision: an exact index over lower-cased
+ * names, a bigram index whose counts filter typo candidates before a bounded
+ * Levenshtein check, and a token scan as the last resort. Every step breaks ties
+ * deterministically (alphabetical) and reports ambiguity.
+ */
+@Slf4j
+public class ItemNameResolver
+{
+    private static volatile ItemNameResolver current;
+
+    /** How a name was matched. */
+    public enum Kind { ID, EXACT, TYPO, PARTIAL, NONE }
+
+    /** Outcome of one lookup; {@code alternatives} lists equally good candidates that lost the tie-break. */
+    public static final class Resolution
+    {
+        static final Resolution NONE = new Resolution(-1, null, Kind.NONE, Collections.emptyList());
+
+        public final int itemId;
+        public final String name;
+        public final Kind kind;
+        public final List<String> alternatives;
+
+        Resolution(int itemId, String name, Kind kind, List<String> alternatives)
+        {
+            this.itemId = itemId;
+            this.name = name;
+            this.kind = kind;
+            this.alternatives = alternatives;
+        }
+
+        public boolean found()     { return itemId > 0; }
+        public boolean ambiguous() { return !alternatives.isEmpty(); }
+
+        /** Import issue to report for {@code rawName}, or null when the match is unremarkable. */
+        public String problem(String rawName)
+        {
+            if (!found()) return "Item not found: " + rawName;
+            if (ambiguous()) return "Ambiguous: " + rawName + " -> " + name + " (also " + String.join(", ", alternatives) + ")";
+            return null;
+        }
+    }
+
+    private static final int MAX_ALTERNATIVES = 3;
+
+    private final int revision;
+    private final ItemCatalog catalog;
+    private final String[] keys;                // distinct lower-cased names, sorted
+    private final String[] display;             // display name per key
+    private final int[] keyItem;                // preferred item id per key
+    private final Map<String, Integer> keyIndex; // lower-cased name -> key
+    private final int[] keyLength;
+    private final Map<Integer, int[]> postings;  // bigram -> ascending keys containing it
+    private final int maxLen;
+
+    private ItemNameResolver(ItemCatalog catalog)
+    {
+        this.revision = catalog.revision;
+        this.catalog = catalog;
+
+        // Preferred id per name: first normal (un-noted, non-placeholder) row, else the lowest id
+        Map<String, Integer> best = new HashMap<>();
+        for (int row = 0; row < catalog.size(); row++)
+        {
+            String k = catalog.lowerNames[row];
+            if (k.isEmpty()) continue;
+            Integer prev = best.get(k);
+            if (prev == null || (!catalog.has(prev, ItemCatalog.NORMAL) && catalog.has(row, ItemCatalog.NORMAL)))
+                best.put(k, row);
+        }
+        keys = best.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        display = new String[keys.length];
+        keyItem = new int[keys.length];
+        keyIndex = new HashMap<>(keys.length * 2);
+        for (int i = 0; i < keys.length; i++)
+        {
+            int row = best.get(keys[i]);
+            display[i] = catalog.name(row);
+            keyItem[i] = catalog.id(row);
+            keyIndex.put(keys[i], i);
+        }
+
+        keyLength = new int[keys.length];
+        Map<Integer, List<Integer>> grams = new HashMap<>();
+        int m = 0;
+        for (int i = 0; i < keys.length; i++)
+        {
+            keyLength[i] = keys[i].length();
+            m = Math.max(m, keyLength[i]);
+            for (int g : bigrams(keys[i])) grams.computeIfAbsent(g, x -> new ArrayList<>()).add(i);
+        }
+        maxLen = m;
+        postings = new HashMap<>(grams.size() * 2);
+        for (Map.Entry<Integer, List<Integer>> e : grams.entrySet())
+            postings.put(e.getKey(), e.getValue().stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /** Resolver for {@code catalog}, built on first use per catalog revision. */
+    public static ItemNameResolver forCatalog(ItemCatalog catalog)
+    {
+        ItemNameResolver r = current;
+        if (r != null && r.revision == catalog.revision) return r;
+        synchronized (ItemNameResolver.class)
+        {
+            r = current;
+            if (r != null && r.revision == catalog.revision) return r;
+            long t0 = System.nanoTime();
+            r = new ItemNameResolver(catalog);
+            log.debug("Item name resolver built: {} names in {} ms", r.keys.length, (System.nanoTime() - t0) / 1_000_000);
+            current = r;
+            return r;
+        }
+    }
+
+    /* ================= Lookup ================= */
+
+    public Resolution resolve(String rawName)
+    {
+        return resolveAll(Collections.singletonList(rawName)).getOrDefault(rawName == null ? "" : rawName.trim(), Resolution.NONE);
+    }
+
+    /**
+     * Resolves a whole import at once, keyed by trimmed raw name. Duplicate names (also after
+     * alias expansion and normalization) are resolved once; exact and typo lookups go through the
+     * indexes, and every name left over shares a single token scan over the names.
+     */
+    public Map<String, Resolution> resolveAll(Collection<String> rawNames)
+    {
+        long t0 = System.nanoTime();
+        Map<String, Resolution> out = new LinkedHashMap<>();
+        Map<String, Resolution> byQuery = new HashMap<>();
+        Map<String, List<String>> leftover = new LinkedHashMap<>(); // query -> raw names needing the scan
+        Set<String> seen = new HashSet<>();
+        for (String raw : rawNames)
+        {
+            String name = raw == null ? "" : raw.trim();
+            if (!seen.add(name)) continue;
+            try
+            {
+                int id = Integer.parseInt(name);
+                int row = catalog.row(id);
+                out.put(name, new Resolution(id, row >= 0 ? catalog.name(row) : name, Kind.ID, Collections.emptyList()));
+                continue;
+            }
+            catch (NumberFormatException ignored) {}
+
+            String alias = ItemAliases.lookup(name);
+            String q = normalize(alias != null ? alias : name);
+            Resolution r = q.isEmpty() ? Resolution.NONE : byQuery.get(q);
+            if (r == null)
+            {
+                Integer exact = keyIndex.get(q);
+                r = exact != null ? new Resolution(keyItem[exact], display[exact], Kind.EXACT, Collections.emptyList()) : nearest(q);
+                if (r == null)
+                {
+                    leftover.computeIfAbsent(q, x -> new ArrayList<>()).add(name);
+                    continue;
+                }
+                byQuery.put(q, r);
+            }
+            out.put(name, r);
+        }
+
+        if (!leftover.isEmpty())
+        {
+            List<PartialBest> scans = new ArrayList<>();
+            for (String q : leftover.keySet()) scans.add(new PartialBest(q));
+            for (int i = 0; i < keys.length; i++)
+                for (PartialBest b : scans) b.offer(i, keys[i]);
+            for (PartialBest b : scans)
+            {
+                Resolution r = b.keys.isEmpty() ? Resolution.NONE : pick(b.keys, Kind.PARTIAL);
+                for (String name : leftover.get(b.query)) out.put(name, r);
+            }
+        }
+        log.debug("Resolved {} item names ({} distinct, {} scanned) in {} us", rawNames.size(), seen.size(),
+                leftover.size(), (System.nanoTime() - t0) / 1_000);
+        return out;
+    }
+
+    /**
+     * Closest name within the typo tolerance for the query length; ties go to the alphabetically
+     * first name. k edits destroy at most 2k of the query's distinct bigrams, so only names that
+     * share at least (bigrams - 2k) of them and are within k in length need the edit-distance check.
+     */
+    private Resolution nearest(String q)
+    {
+        int tol = tolerance(q.length());
+        if (tol == 0 || keys.length == 0) return null;
+        int[] grams = bigrams(q);
+        int need = grams.length - 2 * tol;
+        int[] shared = new int[keys.length];
+        for (int g : grams)
+        {
+            int[] list = postings.get(g);
+            if (list != null) for (int k : list) shared[k]++;
+        }
+
+        int[] scratch = new int[2 * (Math.max(q.length(), maxLen) + 1)];
+        int bestDist = tol + 1;
+        List<Integer> bestKeys = new ArrayList<>();
+        for (int k = 0; k < keys.length; k++)
+        {
+            if (shared[k] < need || Math.abs(keyLength[k] - q.length()) > tol) continue;
+            int d = distance(q, keys[k], bestDist, scratch);
+            if (d > bestDist) continue;
+            if (d < bestDist)
+            {
+                bestDist = d;
+                bestKeys.clear();
+            }
+            bestKeys.add(k);
+        }
+        return bestKeys.isEmpty() || bestDist > tol ? null : pick(bestKeys, Kind.TYPO);
+    }
+
+    /** Names containing every query token; the best relevance tier, then the shortest name, wins. */
+    private static final class PartialBest
+    {
+        final String query;
+        final String[] tokens;
+        final List<Integer> keys = new ArrayList<>();
+        byte bestTier = Byte.MAX_VALUE;
+        int bestLen = Integer.MAX_VALUE;
+
+        PartialBest(String query)
+        {
+            this.query = query;
+            this.tokens = query.split(" ");
+        }
+
+        void offer(int i, String k)
+        {
+            if (k.length() < query.length()) return;
+            for (String t : tokens)
+                if (!k.contains(t)) return;
+            byte tier = ItemSearchEngine.score(k, query, tokens);
+            if (tier > bestTier || (tier == bestTier && k.length() > bestLen)) return;
+            if (tier < bestTier || k.length() < bestLen)
+            {
+                bestTier = tier;
+                bestLen = k.length();
+                keys.clear();
+            }
+            keys.add(i);
+        }
+    }
+
+    private Resolution pick(List<Integer> candidates, Kind kind)
+    {
+        int k = candidates.get(0);
+        List<String> alts = new ArrayList<>();
+        for (int i = 1; i < candidates.size() && alts.size() < MAX_ALTERNATIVES; i++) alts.add(display[candidates.get(i)]);
+        return new Resolution(keyItem[k], display[k], kind, alts);
+    }
+
+    /* ================= Matching helpers ================= */
+
+    /** Distinct bigrams of {@code s}, each packed as (first char << 16 | second char). */
+    private static int[] bigrams(String s)
+    {
+        int n = Math.max(0, s.length() - 1);
+        int[] out = new int[n];
+        for (int i = 0; i < n; i++) out[i] = (s.charAt(i) << 16) | s.charAt(i + 1);
+        Arrays.sort(out);
+        int u = 0;
+        for (int i = 0; i < n; i++)
+            if (u == 0 || out[u - 1] != out[i]) out[u++] = out[i];
+        return Arrays.copyOf(out, u);
+    }
+
+    /** Typos tolerated for a query of {@code len} characters; short names must match exactly. */
+    static int tolerance(int len)
+    {
+        if (len <= 3) return 0;
+        if (len <= 6) return 1;
+        if (len <= 12) return 2;
+        return 3;
+    }
+
+    /**
+     * Levenshtein distance, abandoned once every cell of a row exceeds {@code max}
+     * (the result is then some value greater than {@code max}).
+     */
+    static int distance(String a, String b, int max, int[] scratch)
+    {
+        int n = a.length(), m = b.length();
+        if (Math.abs(n - m) > max) return max + 1;
+        int[] prev = scratch;
+        int off = m + 1;
+        for (int j = 0; j <= m; j++) prev[j] = j;
+        for (int i = 1; i <= n; i++)
+        {
+            char ca = a.charAt(i - 1);
+            scratch[off] = i;
+            int rowMin = i;
+            for (int j = 1; j <= m; j++)
+            {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                int v = Math.min(Math.min(scratch[off + j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+                scratch[off + j] = v;
+                if (v < rowMin) rowMin = v;
+            }
+            if (rowMin > max) return max + 1;
+            System.arraycopy(scratch, off, prev, 0, m + 1);
+        }
+        return prev[m];
+    }
+
+    static String normalize(String raw)
+    {
+        if (raw == null) return "";
+        return ItemCatalog.sanitizeName(raw.trim())
+                .replace('’', '\'')
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,20 @@
+package com.krisped;
+
+import java.util.List;
+
+/**
+ * Source of name-search hits that supplement the catalog scan in {@link ItemSearchDialog}.
+ * Implementations must be safe to call from search workers. See {@link ItemSearchBackends}
+ * for the available implementations and how one is chosen.
+ */
+public interface ItemSearchBackend
+{
+    /** Short name for logs and the search dialog's status tooltip. */
+    String name();
+
+    /** True when hits come from the plugin's own item index (the catalog scan already has them). */
+    boolean indexBacked();
+
+    /** Item ids matching {@code query}; empty (never null) when nothing matches or the backend failed. */
+    List<Integer> search(String query);
+}
@@ -0,0 +1,221 @@
+package com.krisped;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.game.ItemManager;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Chooses the active {@link ItemSearchBackend} once, when the search dialog is first built.
+ * The catalog scan always runs, so another backend only pays for itself when it finds items
+ * the scan does not: each candidate is run on a few sample queries once the item catalog is
+ * loaded and kept only if it adds hits. Its speed is measured and reported, but does not
+ * decide. Until the check finishes (or when nothing adds hits) the catalog index alone is used.
+ */
+@Slf4j
+public class ItemSearchBackends
+{
+    private static final String[] BENCH_QUERIES = { "rune", "dragon sc", "shark", "prayer pot", "zamorak" };
+    private static final int BENCH_ROUNDS = 3;
+
+    private static volatile ItemSearchBackend active = new CatalogBackend();
+    private static volatile String report = "Search backend: " + active.name() + " (not checked yet)";
+    private static CompletableFuture<ItemSearchBackend> selection;
+
+    private ItemSearchBackends() {}
+
+    public static ItemSearchBackend active() { return active; }
+
+    /** One line describing the active backend and its measured cost. */
+    public static String describe() { return report; }
+
+    /** Checks the available backends in the background (once) and activates one that adds hits. */
+    public static synchronized CompletableFuture<ItemSearchBackend> select(ItemManager itemManager, ClientThread clientThread)
+    {
+        if (selection != null) return selection;
+        selection = ItemCatalog.load(itemManager, clientThread).thenApplyAsync(catalog -> {
+            ItemSearchBackend catalogBackend = new CatalogBackend();
+            List<ItemSearchBackend> candidates = new ArrayList<>();
+            ItemSearchBackend bound = ItemManagerBackend.bind(itemManager);
+            if (bound != null) candidates.add(bound);
+
+            ItemSearchBackend best = catalogBackend;
+            int bestExtra = 0;
+            StringBuilder notes = new StringBuilder(catalogBackend.name()).append(' ').append(micros(catalogBackend));
+            for (ItemSearchBackend b : candidates)
+            {
+                int extra = extraHits(b, catalogBackend);
+                notes.append(", ").append(b.name()).append(' ')
+                        .append(extra < 0 ? "unusable" : micros(b) + ", +" + extra + " hits");
+                if (extra > bestExtra)
+                {
+                    best = b;
+                    bestExtra = extra;
+                }
+            }
+            active = best;
+            report = "Search backend: " + best.name() + " (" + notes + ")";
+            log.info("Item search backend: {} ({})", best.name(), notes);
+            return best;
+        }, ItemSearchEngine.pool());
+        return selection;
+    }
+
+    /** Hits of {@code b} over the sample queries that the catalog scan does not find; -1 when it fails. */
+    private static int extraHits(ItemSearchBackend b, ItemSearchBackend catalog)
+    {
+        try
+        {
+            int extra = 0;
+            for (String q : BENCH_QUERIES)
+            {
+                Set<Integer> known = new HashSet<>(catalog.search(q));
+                for (int id : b.search(q)) if (known.add(id)) extra++;
+            }
+            return extra;
+        }
+        catch (Exception ex)
+        {
+            return -1;
+        }
+    }
+
+    /** Mean cost per sample query after a warm-up round, for the report only. */
+    private static String micros(ItemSearchBackend b)
+    {
+        try
+        {
+            for (String q : BENCH_QUERIES) b.search(q);
+            long t0 = System.nanoTime();
+            for (int r = 0; r < BENCH_ROUNDS; r++)
+                for (String q : BENCH_QUERIES) b.search(q);
+            return (System.nanoTime() - t0) / (BENCH_ROUNDS * BENCH_QUERIES.length) / 1_000 + " us/query";
+        }
+        catch (Exception ex)
+        {
+            return "failed";
+        }
+    }
+
+    /* ================= Backends ================= */
+
+    /** Name scan over the plugin's own {@link ItemCatalog}; empty until the catalog is captured. */
+    static final class CatalogBackend implements ItemSearchBackend
+    {
+        @Override public String name() { return "catalog index"; }
+        @Override public boolean indexBacked() { return true; }
+
+        @Override
+        public List<Integer> search(String query)
+        {
+            ItemCatalog catalog = ItemCatalog.peek();
+            String q = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+            if (catalog == null || q.isEmpty()) return Collections.emptyList();
+            long[] rows = ItemSearchEngine.matchNames(catalog, q.split("\\s+"), new byte[catalog.size()], () -> false);
+            List<Integer> ids = new ArrayList<>(ItemSearchEngine.count(rows));
+            for (int w = 0; w < rows.length; w++)
+            {
+                long bits = rows[w];
+                while (bits != 0)
+                {
+                    ids.add(catalog.id((w << 6) + Long.numberOfTrailingZeros(bits)));
+                    bits &= bits - 1;
+                }
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * {@code ItemManager.search(String)} bound once through a {@link MethodHandle}; the id
+     * accessor of each result class ({@code getItemId()} or {@code getId()}) is resolved once
+     * per class and cached.
+     */
+    static final class ItemManagerBackend implements ItemSearchBackend
+    {
+        private static final MethodHandle NO_ACCESSOR = MethodHandles.constant(Object.class, null);
+
+        private final ItemManager itemManager;
+        private final MethodHandle search; // (ItemManager, String) -> Object
+        private final Map<Class<?>, MethodHandle> idAccessors = new ConcurrentHashMap<>();
+
+        private ItemManagerBackend(ItemManager itemManager, MethodHandle search)
+        {
+            this.itemManager = itemManager;
+            this.search = search;
+        }
+
+        /** Null when this client's ItemManager has no public {@code search(String)}. */
+        static ItemManagerBackend bind(ItemManager itemManager)
+        {
+            try
+            {
+                Method m = itemManager.getClass().getMethod("search", String.class);
+                MethodHandle h = MethodHandles.publicLookup().unreflect(m)
+                        .asType(MethodType.methodType(Object.class, ItemManager.class, String.class));
+                return new ItemManagerBackend(itemManager, h);
+            }
+            catch (Exception ex)
+            {
+                log.debug("ItemManager.search unavailable: {}", ex.toString());
+                return null;
+            }
+        }
+
+        @Override public String name() { return "ItemManager.search"; }
+        @Override public boolean indexBacked() { return false; }
+
+        @Override
+        public List<Integer> search(String query)
+        {
+            Object res;
+            try { res = search.invokeExact(itemManager, query); }
+            catch (Throwable t) { return Collections.emptyList(); }
+            if (!(res instanceof Collection)) return Collections.emptyList();
+
+            List<Integer> ids = new ArrayList<>();
+            for (Object o : (Collection<?>) res)
+            {
+                if (o instanceof Integer) { ids.add((Integer) o); continue; }
+                if (o == null) continue;
+                MethodHandle getter = idAccessors.computeIfAbsent(o.getClass(), ItemManagerBackend::idAccessor);
+                if (getter == NO_ACCESSOR) continue;
+                try
+                {
+                    Object id = getter.invokeExact(o);
+                    if (id instanceof Integer) ids.add((Integer) id);
+                }
+                catch (Throwable ignored) {}
+            }
+            return ids;
+        }
+
+        private static MethodHandle idAccessor(Class<?> type)
+        {
+            for (String name : new String[] { "getItemId", "getId" })
+            {
+                try
+                {
+                    Method m = type.getMethod(name);
+                    return MethodHandles.publicLookup().unreflect(m).asType(MethodType.methodType(Object.class, Object.class));
+                }
+                catch (Exception ignored) {}
+            }
+            return NO_ACCESSOR; // cached so the class is not probed again
+        }
+    }
+}
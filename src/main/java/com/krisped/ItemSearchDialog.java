@@ -1,6 +1,6 @@
 package com.krisped;
 
-import net.runelite.api.ItemComposition;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.client.callback.ClientThread;
 import net.runelite.client.game.ItemManager;
 
@@ -8,23 +8,39 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.image.BufferedImage;
-import java.lang.reflect.Method;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
 /**
  * Item search dialog with optional category/type filters (none pre-enabled).
  * Supports:
  *  - Name or ID search (press Enter).
- *  - Sorting by name or ID.
- *  - In‑memory filtering (no re-query on toggle).
+ *  - One warm instance per panel: reopened with {@link #pick}, reset between uses, and
+ *    opening on favorites + recent picks ({@link RecentItems}) without running a search.
+ *  - Relevance ranking (exact, prefix, word start, substring); the best 900 are kept
+ *    with a bounded heap. Sorting by name or ID orders results within a relevance tier, via
+ *    name/id ranks precomputed in the catalog (descending reads the same order backwards).
+ *  - In‑memory filtering (no re-query on toggle): filters are precomputed bitsets over the
+ *    whole catalog and are ANDed into the uncapped match set before the result cap.
  *  - Wearable / Consumable detection from actions + simple heuristics.
+ *  - Repeat searches are served from the session-wide {@link SearchResultCache}.
+ *  - The first page arrives before the full scan: exact and prefix matches come from a binary
+ *    search over the name-sorted catalog and are shown at once; the scan appends the rest.
+ *  - Superseded searches are cancelled cooperatively: a stale queued search never starts and
+ *    a running one stops at the next partition boundary.
+ *  - Matching runs on a worker pool over the shared {@link ItemCatalog} snapshot;
+ *    only icon fetches go back to the client thread, and only for rows in (or near) the
+ *    visible viewport. Icons live in the shared {@link ItemIconCache}, not in results.
  */
+@Slf4j
 public class ItemSearchDialog extends JDialog
 {
-    private static final String MEMBERS_SUFFIX_REGEX = "(?i) \\((members)\\)$";
-    private static String sanitizeName(String s){ return s == null ? "" : s.replaceAll(MEMBERS_SUFFIX_REGEX, "").trim(); }
+    private static final int MAX_RESULTS = 900;
+    private static final int ICON_PREFETCH_ROWS = 8; // rows loaded beyond the viewport
+    private static final int ROW_HEIGHT = 40;        // 32px icon + 4px top/bottom border
 
     private static final float LIST_MAIN_FONT_SIZE = 16f;
     private static final float LIST_META_FONT_SIZE = 15f;
@@ -33,13 +49,14 @@ public class ItemSearchDialog extends JDialog
 
     private final ItemManager itemManager;
     private final ClientThread clientThread;
+    private final RecentItems recentItems;
 
     private final JTextField searchField = new JTextField();
     private final JButton filterButton   = new JButton("Filters ▾");
     private final JComboBox<SortMode> sortCombo = new JComboBox<>(SortMode.values());
     private JPopupMenu filterMenu;
 
-    private final DefaultListModel<Result> listModel = new DefaultListModel<>();
+    private final ResultListModel listModel = new ResultListModel();
     private final JList<Result> resultList = new JList<>(listModel);
     private final JButton okBtn      = new JButton("Select");
     private final JButton cancelBtn  = new JButton("Cancel");
@@ -49,38 +66,78 @@ public class ItemSearchDialog extends JDialog
 
     private int selectedItemId = -1;
 
-    private volatile List<Integer> allItemIdsCache = null;
-    private volatile boolean buildingIndex = false;
     private final AtomicInteger searchGeneration = new AtomicInteger();
     private int hoverIndex = -1;
 
     private final EnumSet<FilterFlag> activeFilters = EnumSet.noneOf(FilterFlag.class);
     private final Map<FilterFlag, JCheckBoxMenuItem> filterItems = new EnumMap<>(FilterFlag.class);
 
-    private List<Result> originalResults = Collections.emptyList();
+    private SearchHits lastHits;                        // uncapped matches of the last query
+    private final Map<Integer, Result> resultsByRow = new HashMap<>(); // reused across filter toggles
+    private SearchResultCache.Ranking currentRanking; // what the list shows; re-sorted in place
+    private int wantedFrom = Integer.MAX_VALUE;         // rows the renderer found without an icon
+    private int wantedTo = -1;
+    private boolean iconLoadScheduled = false;
     private String lastSearch = "";
+    private String lastQuery = "";                      // normalized: lower-case tokens joined by one space
 
-    public static int showDialog(Component parent, ItemManager itemManager, ClientThread clientThread)
+    /** Creates a dialog meant to be kept and reopened with {@link #pick(Component)}. */
+    public static ItemSearchDialog create(Component parent, ItemManager itemManager, ClientThread clientThread,
+                                          RecentItems recentItems)
     {
         Frame f = JOptionPane.getFrameForComponent(parent);
-        ItemSearchDialog d = new ItemSearchDialog(f, itemManager, clientThread);
-        d.setLocationRelativeTo(parent);
-        d.setVisible(true);
-        return d.selectedItemId;
+        return new ItemSearchDialog(f, itemManager, clientThread, recentItems);
     }
 
-    private ItemSearchDialog(Frame owner, ItemManager itemManager, ClientThread clientThread)
+    private ItemSearchDialog(Frame owner, ItemManager itemManager, ClientThread clientThread, RecentItems recentItems)
     {
         super(owner, "Item Search", true);
         this.itemManager = itemManager;
         this.clientThread = clientThread;
+        this.recentItems = recentItems;
         buildUI();
         buildFilterMenu();
         attach();
         sortCombo.setSelectedItem(SortMode.ID_ASC);
         setPreferredSize(new Dimension(690, 700));
         pack();
+        ItemCatalog.load(itemManager, clientThread); // warm the index before the first search
+        recentItems.load();
+        ItemSearchBackends.select(itemManager, clientThread);
+    }
+
+    /**
+     * Resets the dialog, shows favorites and recent picks, and blocks until it is closed.
+     * Filters and sort mode are kept from the previous use. Returns the chosen id or -1.
+     */
+    public int pick(Component parent)
+    {
+        return pick(parent, "");
+    }
+
+    /** As {@link #pick(Component)}, but starts with {@code query} already searched (e.g. an unresolved import name). */
+    public int pick(Component parent, String query)
+    {
+        selectedItemId = -1;
+        searchField.setText("");
+        lastSearch = "";
+        lastQuery = "";
+        searchGeneration.incrementAndGet();
+        lastHits = null;
+        resultsByRow.clear();
+        currentRanking = null;
+        hoverIndex = -1;
+        if (query == null || query.trim().isEmpty()) showRecentItems();
+        else
+        {
+            searchField.setText(query.trim());
+            startSearch();
+        }
+
+        setLocationRelativeTo(parent);
         SwingUtilities.invokeLater(() -> searchField.requestFocusInWindow());
+        setVisible(true);
+        return selectedItemId;
     }
 
     /* ================= UI ================= */
@@ -91,13 +148,15 @@ public class ItemSearchDialog extends JDialog
         JPanel top = new JPanel(new BorderLayout(6,4));
         top.setBorder(BorderFactory.createEmptyBorder(8,8,0,8));
 
-        JLabel lbl = new JLabel("Search by name or ID and press Enter (e.g. Dragon scimitar)");
+        JLabel lbl = new JLabel("Search by name, ID or stats and press Enter (e.g. Dragon scimitar, slot:head prayer>0)");
         lbl.setFont(fontPlain(LIST_MAIN_FONT_SIZE));
         top.add(lbl, BorderLayout.NORTH);
 
         JPanel searchLine = new JPanel(new BorderLayout(6,0));
         searchField.setFont(fontPlain(15));
         searchField.setMargin(new Insets(3,6,3,6));
+        searchField.setToolTipText("<html>Stat filters: slot:head, str&gt;=3, prayer&gt;0, mdmg&gt;=2.5 ...<br>"
+                + "Stats: astab aslash acrush amagic arange dstab dslash dcrush dmagic drange str rstr mdmg prayer aspeed</html>");
 
         JPanel right = new JPanel(new FlowLayout(FlowLayout.RIGHT,6,0));
         filterButton.setFont(fontPlain(14));
@@ -116,6 +175,9 @@ public class ItemSearchDialog extends JDialog
         split.setResizeWeight(0.55);
 
         resultList.setCellRenderer(new Renderer());
+        // Fixed metrics: JList only asks the renderer about rows it actually paints
+        resultList.setFixedCellHeight(ROW_HEIGHT);
+        resultList.setFixedCellWidth(200);
         resultList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         JScrollPane listScroll = new JScrollPane(resultList);
         listScroll.getViewport().setBackground(UIManager.getColor("Panel.background"));
@@ -217,6 +279,8 @@ public class ItemSearchDialog extends JDialog
             {
                 if (e.getClickCount() == 2) accept();
             }
+            @Override public void mousePressed(MouseEvent e){ maybeShowFavoritePopup(e); }
+            @Override public void mouseReleased(MouseEvent e){ maybeShowFavoritePopup(e); }
             @Override public void mouseExited(MouseEvent e)
             {
                 if (hoverIndex != -1)
@@ -242,7 +306,7 @@ public class ItemSearchDialog extends JDialog
 
         sortCombo.addActionListener(e -> resortCurrentResults());
         okBtn.addActionListener(e -> accept());
-        cancelBtn.addActionListener(e -> { selectedItemId = -1; dispose(); });
+        cancelBtn.addActionListener(e -> { selectedItemId = -1; setVisible(false); });
 
         getRootPane().setDefaultButton(okBtn);
     }
@@ -253,308 +317,360 @@ public class ItemSearchDialog extends JDialog
         if (r != null && r.itemId > 0)
         {
             selectedItemId = r.itemId;
-            dispose();
+            recentItems.recordUse(r.itemId);
+            setVisible(false);
         }
     }
 
-    /* ================= Search & Filtering ================= */
+    private void maybeShowFavoritePopup(MouseEvent e)
+    {
+        if (!e.isPopupTrigger()) return;
+        int idx = resultList.locationToIndex(e.getPoint());
+        if (idx < 0) return;
+        resultList.setSelectedIndex(idx);
+        Result r = resultList.getSelectedValue();
+        if (r == null || r.itemId <= 0) return;
+        JPopupMenu menu = new JPopupMenu();
+        JMenuItem fav = new JMenuItem(recentItems.isFavorite(r.itemId) ? "Remove from favorites" : "Add to favorites");
+        fav.addActionListener(ev -> {
+            recentItems.toggleFavorite(r.itemId);
+            if (lastQuery.isEmpty()) showRecentItems(); else resultList.repaint();
+        });
+        menu.add(fav);
+        menu.show(resultList, e.getX(), e.getY());
+    }
 
-    private void startSearch()
+    /* ================= Recent / Favorites ================= */
+
+    /** Shown on open and for an empty query; needs no search, only the catalog for names. */
+    private void showRecentItems()
     {
-        final String raw = searchField.getText().trim();
-        lastSearch = raw;
-        listModel.clear();
         okBtn.setEnabled(false);
         updateDetails(null);
+        statusLabel.setToolTipText(null);
 
-        if (raw.isEmpty())
+        ItemCatalog catalog = ItemCatalog.peek();
+        if (catalog == null || !recentItems.isLoaded())
         {
-            originalResults = Collections.emptyList();
-            status("Empty search.");
+            listModel.clear();
+            status("Loading item index...");
+            final int gen = searchGeneration.get();
+            CompletableFuture.allOf(ItemCatalog.load(itemManager, clientThread), recentItems.load())
+                    .thenRun(() -> SwingUtilities.invokeLater(() -> {
+                        if (gen == searchGeneration.get() && lastQuery.isEmpty()) showRecentItems();
+                    }));
             return;
         }
 
-        final int gen = searchGeneration.incrementAndGet();
-        status("Searching...");
-        listModel.addElement(Result.placeholder("(Searching...)"));
+        List<Integer> favorites = recentItems.favorites();
+        List<Result> items = new ArrayList<>();
+        int shown = addSection(items, "Favorites", favorites, catalog, Collections.emptyList());
+        shown += addSection(items, "Recent", recentItems.recents(), catalog, favorites);
+        listModel.setItems(items);
+        status(shown == 0 ? "Search by name or ID" : shown + " favorite/recent item(s)");
+    }
 
-        clientThread.invoke(() -> {
-            List<Result> results;
-            try { results = performSearchOnClientThread(raw); }
-            catch (Exception ex)
-            {
-                results = Collections.singletonList(Result.placeholder("Error: " + ex.getMessage()));
-            }
-            final List<Result> publish = results;
-            SwingUtilities.invokeLater(() -> {
-                if (gen != searchGeneration.get()) return;
-                originalResults = publish;
-                applyFiltersToCurrentList();
-            });
-        });
+    private int addSection(List<Result> out, String title, List<Integer> ids, ItemCatalog catalog, List<Integer> skip)
+    {
+        List<Result> rows = new ArrayList<>();
+        for (int id : ids)
+        {
+            int row = catalog.row(id);
+            if (row >= 0 && !skip.contains(id)) rows.add(Result.of(catalog, row));
+        }
+        if (rows.isEmpty()) return 0;
+        out.add(Result.placeholder("— " + title + " —"));
+        out.addAll(rows);
+        return rows.size();
     }
 
-    private void applyFiltersToCurrentList()
+    /* ================= Search & Filtering ================= */
+
+    private void startSearch()
     {
+        final String raw = searchField.getText().trim();
+        lastSearch = raw;
+        lastQuery = SearchResultCache.normalizeQuery(raw);
         listModel.clear();
-        List<Result> source = originalResults;
-        if (source.isEmpty())
+        okBtn.setEnabled(false);
+        updateDetails(null);
+
+        searchGeneration.incrementAndGet();
+        lastHits = null;
+        resultsByRow.clear();
+        currentRanking = null;
+
+        if (lastQuery.isEmpty())
         {
-            listModel.addElement(Result.placeholder("(No results)"));
-            status("0 result(s)");
-            okBtn.setEnabled(false);
+            showRecentItems();
             return;
         }
-        List<Result> filtered;
-        if (activeFilters.isEmpty()) filtered = source;
-        else
+
+        // A cached ranking shows instantly; on a miss this falls through to runSearch()
+        if (ItemCatalog.peek() != null) applyFiltersToCurrentList();
+        else runSearch();
+    }
+
+    private void runSearch()
+    {
+        final int gen = searchGeneration.incrementAndGet();
+        final String query = lastQuery;
+        final BooleanSupplier stale = () -> gen != searchGeneration.get();
+        final long started = System.nanoTime();
+        final StatQuery statQuery = StatQuery.parse(query);
+        final int firstPage = showFirstPage(statQuery);
+        final long firstPageNanos = System.nanoTime() - started;
+        if (firstPage == 0)
         {
-            filtered = new ArrayList<>();
-            for (Result r : source)
-                if (r.itemId > 0 && passesFilters(r)) filtered.add(r);
+            status("Searching...");
+            listModel.setItems(Collections.singletonList(Result.placeholder("(Searching...)")));
         }
-        if (filtered.isEmpty())
+
+        // Stat columns are built on the client thread over many frames: chained, so no search worker waits for them
+        ItemCatalog.load(itemManager, clientThread)
+                .thenCompose(catalog -> (statQuery.hasClauses()
+                        ? ItemStatColumns.load(catalog, itemManager, clientThread)
+                        : CompletableFuture.<ItemStatColumns>completedFuture(null))
+                        .thenApplyAsync(columns -> performSearch(catalog, columns, statQuery, stale), ItemSearchEngine.pool()))
+                .whenComplete((hits, ex) -> SwingUtilities.invokeLater(() -> {
+                    if (stale.getAsBoolean()) return; // superseded (including cancelled scans)
+                    if (ex != null)
+                    {
+                        listModel.setItems(Collections.singletonList(
+                                Result.placeholder("Error: " + (ex.getCause() != null ? ex.getCause() : ex).getMessage())));
+                        status("Search failed");
+                        return;
+                    }
+                    lastHits = hits;
+                    applyFiltersToCurrentList();
+                    if (firstPage > 0)
+                        log.debug("Search '{}': first page of {} after {} us, full ranking after {} ms", query,
+                                firstPage, firstPageNanos / 1_000, (System.nanoTime() - started) / 1_000_000);
+                }));
+    }
+
+    /**
+     * Shows the exact and prefix matches while the full scan runs and returns how many there
+     * are. They are the two best relevance tiers, so in any sort mode they are already the final
+     * top of the list and the scan only adds word and substring matches below them. Skipped for
+     * stat clauses and typed ids, whose hits a name lookup cannot see.
+     */
+    private int showFirstPage(StatQuery statQuery)
+    {
+        ItemCatalog catalog = ItemCatalog.peek();
+        String[] tokens = statQuery.nameTokens();
+        if (catalog == null || statQuery.hasClauses() || tokens.length == 0) return 0;
+        if (tokens.length == 1 && tokens[0].chars().allMatch(Character::isDigit)) return 0;
+
+        String query = String.join(" ", tokens);
+        long[] matches = new long[catalog.words()];
+        byte[] scores = new byte[catalog.size()];
+        for (int row : catalog.rowsWithPrefix(query))
         {
-            listModel.addElement(Result.placeholder("(No results match filters)"));
-            status("0 result(s)");
-            okBtn.setEnabled(false);
-            return;
+            matches[row >>> 6] |= 1L << row;
+            scores[row] = catalog.lowerNames[row].equals(query) ? ItemSearchEngine.EXACT : ItemSearchEngine.PREFIX;
         }
-        for (Result r : filtered) listModel.addElement(r);
-        status(filtered.size() + " result(s)");
+        SearchResultCache.Ranking ranking = rank(new SearchHits(catalog, matches, scores), activeFilterMask());
+        if (ranking.total == 0) return 0;
+
+        currentRanking = ranking;
+        showRanking(catalog, ranking);
+        status("Searching... " + ranking.total + " name match(es) so far");
         resultList.setSelectedIndex(0);
+        return ranking.rows.length;
     }
 
-    private boolean passesFilters(Result r)
+    private int activeFilterMask()
     {
-        for (FilterFlag f : activeFilters)
-        {
-            switch (f)
-            {
-                case WEARABLE: if (!r.wearable) return false; break;
-                case CONSUMABLE: if (!r.consumable) return false; break;
-                case STACKABLE: if (!r.stackable) return false; break;
-                case MEMBERS: if (!r.members) return false; break;
-                case NOTED: if (!r.noted) return false; break;
-                case PLACEHOLDER: if (!r.placeholder) return false; break;
-                case NORMAL: if (!r.normal) return false; break;
-            }
-        }
-        return true;
+        int mask = 0;
+        for (FilterFlag f : activeFilters) mask |= f.catalogFlag;
+        return mask;
     }
 
-    private List<Result> performSearchOnClientThread(String raw)
+    /** Called by the renderer for a painted row whose icon is not cached yet. */
+    private void wantIcon(int index)
     {
-        String[] tokens = Arrays.stream(raw.toLowerCase().split("\\s+"))
-                .map(t -> t.replace("*", "").trim())
-                .filter(t -> !t.isEmpty())
-                .toArray(String[]::new);
+        wantedFrom = Math.min(wantedFrom, index);
+        wantedTo = Math.max(wantedTo, index);
+        if (iconLoadScheduled) return;
+        iconLoadScheduled = true;
+        SwingUtilities.invokeLater(this::loadWantedIcons);
+    }
 
-        Set<Integer> ids = new LinkedHashSet<>();
+    /** Icons are the only part of a search that needs the client thread. */
+    private void loadWantedIcons()
+    {
+        iconLoadScheduled = false;
+        int from = Math.max(0, wantedFrom - ICON_PREFETCH_ROWS);
+        int to = Math.min(listModel.getSize() - 1, wantedTo + ICON_PREFETCH_ROWS);
+        wantedFrom = Integer.MAX_VALUE;
+        wantedTo = -1;
+
+        List<Integer> ids = new ArrayList<>();
+        for (int i = from; i <= to; i++)
+        {
+            Result r = listModel.getElementAt(i);
+            if (r.itemId > 0 && ItemIconCache.get(r.itemId) == null) ids.add(r.itemId);
+        }
+        ItemIconCache.load(ids, itemManager, clientThread, this::onIconsLoaded);
+    }
 
-        if (tokens.length == 1)
+    private void onIconsLoaded(Set<Integer> ids)
+    {
+        int first = resultList.getFirstVisibleIndex();
+        int last = resultList.getLastVisibleIndex();
+        for (int i = Math.max(0, first); i >= 0 && i <= last && i < listModel.getSize(); i++)
         {
-            try { ids.add(Integer.parseInt(tokens[0])); }
-            catch (NumberFormatException ignored) {}
+            if (!ids.contains(listModel.getElementAt(i).itemId)) continue;
+            Rectangle cell = resultList.getCellBounds(i, i);
+            if (cell != null) resultList.repaint(cell);
         }
+        Result sel = resultList.getSelectedValue();
+        if (sel != null && ids.contains(sel.itemId)) updateDetails(sel);
+    }
 
-        ids.addAll(invokeItemManagerSearch(String.join(" ", tokens)));
-        ensureIndex();
+    private void applyFiltersToCurrentList()
+    {
+        ItemCatalog catalog = ItemCatalog.peek();
+        if (lastQuery.isEmpty() || catalog == null)
+        {
+            listModel.clear();
+            return;
+        }
 
-        if (allItemIdsCache != null)
+        int mask = activeFilterMask();
+        SearchResultCache.Ranking ranking = SearchResultCache.get(catalog.revision, mask, lastQuery);
+        if (ranking == null)
         {
-            for (Integer id : allItemIdsCache)
+            SearchHits hits = lastHits;
+            if (hits == null || hits.catalog != catalog)
             {
-                if (id == null || id <= 0) continue;
-                try
-                {
-                    ItemComposition comp = itemManager.getItemComposition(id);
-                    if (comp == null) continue;
-                    String name = sanitizeName(comp.getName());
-                    if (name == null || name.equalsIgnoreCase("null")) continue;
-                    String lname = name.toLowerCase();
-                    boolean all = true;
-                    for (String t : tokens)
-                        if (!lname.contains(t)) { all = false; break; }
-                    if (all)
-                    {
-                        ids.add(id);
-                        if (ids.size() > 900) break;
-                    }
-                }
-                catch (Exception ignored){}
+                runSearch(); // new query, or the last one was served from cache: no match set to filter
+                return;
             }
+            ranking = rank(hits, mask);
+            SearchResultCache.put(catalog.revision, mask, lastQuery, ranking);
         }
+        statusLabel.setToolTipText("<html>" + SearchResultCache.describe() + "<br>" + ItemSearchBackends.describe()
+                + "<br>" + ClientTaskScheduler.describe() + "</html>");
 
-        List<Result> out = new ArrayList<>();
-        for (Integer id : ids)
+        if (ranking.total == 0)
         {
-            if (id == null || id <= 0) continue;
-            try
-            {
-                ItemComposition comp = itemManager.getItemComposition(id);
-                if (comp == null) continue;
-                String name = sanitizeName(comp.getName());
-                if (name == null || name.equalsIgnoreCase("null") || name.isEmpty()) continue;
-
-                boolean placeholder = comp.getPlaceholderId() != -1 && comp.getPlaceholderTemplateId() != -1;
-                boolean noted = comp.getNote() != -1 && comp.getLinkedNoteId() != -1;
-                boolean normal = !(placeholder || noted);
-                boolean stackable = comp.isStackable() || noted;
-                boolean members = comp.isMembers();
-
-                BufferedImage img = itemManager.getImage(id);
-                List<String> actions = extractActions(comp);
-
-                boolean wearable = isWearable(actions);
-                boolean consumable = isConsumable(actions, noted, placeholder);
-
-                String listDisplay = name + " (" + id + ")";
-                out.add(new Result(id, name, listDisplay, img,
-                        stackable, noted, placeholder, normal, members, wearable, consumable, actions));
-            }
-            catch (Exception ignored){}
-            if (out.size() >= 900) break;
+            listModel.setItems(Collections.singletonList(Result.placeholder(mask == 0 ? "(No results)" : "(No results match filters)")));
+            status("0 result(s)");
+            okBtn.setEnabled(false);
+            currentRanking = null;
+            return;
         }
 
-        sortResults(out);
-        return out;
+        currentRanking = ranking;
+        showRanking(catalog, ranking);
+        int shown = ranking.rows.length, total = ranking.total;
+        status(total > shown ? "Showing " + shown + " of " + total + " result(s)" : total + " result(s)");
+        resultList.setSelectedIndex(0);
     }
 
-    private boolean isWearable(List<String> actions)
+    /** Filters (word-wise AND) and ranks one match set; the rows kept are the cache value. */
+    private static SearchResultCache.Ranking rank(SearchHits hits, int filterMask)
     {
-        for (String a : actions)
+        long[] visible = hits.matches;
+        if (filterMask != 0)
         {
-            if (a == null) continue;
-            String x = a.toLowerCase(Locale.ROOT);
-            if (x.contains("wear") || x.contains("wield") || x.contains("equip")) return true;
+            visible = visible.clone();
+            for (int f = filterMask; f != 0; f &= f - 1)
+                ItemSearchEngine.and(visible, hits.catalog.rowsWith(Integer.lowestOneBit(f)));
         }
-        return false;
+        int[] rows = ItemSearchEngine.topK(visible, hits.scores, MAX_RESULTS);
+        byte[] tiers = new byte[rows.length];
+        for (int i = 0; i < rows.length; i++) tiers[i] = hits.scores[rows[i]];
+        return new SearchResultCache.Ranking(rows, tiers, ItemSearchEngine.count(visible));
     }
 
-    private static final String[] CONSUME_ACTIONS = {
-            "eat","drink","sip","quaff","guzzle","consume","bite","nibble","swallow" };
+    private Result resultFor(ItemCatalog catalog, int row)
+    {
+        return resultsByRow.computeIfAbsent(row, r -> Result.of(catalog, r));
+    }
 
-    private boolean isConsumable(List<String> actions, boolean noted, boolean placeholder)
+    /**
+     * Runs on a search worker; reads only the immutable catalog snapshot and, when the query has
+     * stat clauses, its already built {@code columns} (null otherwise).
+     */
+    private SearchHits performSearch(ItemCatalog catalog, ItemStatColumns columns, StatQuery statQuery, BooleanSupplier stale)
     {
-        if (noted || placeholder) return false; // exclude noted & placeholder variants
-        if (actions == null || actions.isEmpty()) return false;
-        for (String raw : actions)
+        ItemSearchEngine.checkCancelled(stale); // stale before it was dequeued (or while columns were built): never start
+        String[] tokens = statQuery.nameTokens();
+
+        byte[] scores = new byte[catalog.size()];
+        long[] matches;
+        if (tokens.length > 0)
         {
-            if (raw == null) continue;
-            String a = raw.trim().toLowerCase(Locale.ROOT);
-            for (String base : CONSUME_ACTIONS)
+            matches = ItemSearchEngine.matchNames(catalog, tokens, scores, stale);
+            ItemSearchEngine.checkCancelled(stale);
+
+            // Hits from an external backend that the name scan missed rank as plain substring matches
+            ItemSearchBackend backend = ItemSearchBackends.active();
+            List<Integer> extra = backend.indexBacked() ? Collections.emptyList() : backend.search(String.join(" ", tokens));
+            for (Integer id : extra)
             {
-                if (a.equals(base) || a.startsWith(base + " "))
-                    return true;
+                int row = id != null ? catalog.row(id) : -1;
+                if (row < 0 || ItemSearchEngine.get(matches, row)) continue;
+                matches[row >>> 6] |= 1L << row;
+                scores[row] = ItemSearchEngine.SUBSTRING;
             }
         }
-        return false;
-    }
+        else matches = null; // stat clauses only: every row is a candidate, all equally relevant
 
-    private void sortResults(List<Result> list)
-    {
-        SortMode mode = (SortMode) sortCombo.getSelectedItem();
-        if (mode == null) mode = SortMode.ID_ASC;
-        Comparator<Result> cmp;
-        switch (mode)
+        if (statQuery.hasClauses())
         {
-            case NAME_DESC: cmp = Comparator.comparing((Result r) -> r.itemName.toLowerCase()).reversed(); break;
-            case ID_ASC:    cmp = Comparator.comparingInt(r -> r.itemId); break;
-            case ID_DESC:   cmp = Comparator.comparingInt((Result r) -> r.itemId).reversed(); break;
-            case NAME_ASC:
-            default:        cmp = Comparator.comparing((Result r) -> r.itemName.toLowerCase()); break;
+            long[] statMatches = statQuery.evaluate(columns);
+            if (matches == null) return new SearchHits(catalog, statMatches, scores);
+            ItemSearchEngine.and(matches, statMatches);
+            return new SearchHits(catalog, matches, scores);
         }
-        list.sort(cmp);
-    }
-
-    private void resortCurrentResults()
-    {
-        if (originalResults.isEmpty()) return;
-        sortResults(originalResults);
-        applyFiltersToCurrentList();
-    }
-
-    /* ================= Helpers ================= */
 
-    private List<Integer> invokeItemManagerSearch(String query)
-    {
-        try
+        // A typed id is an exact hit
+        if (tokens.length == 1)
         {
-            Method m = itemManager.getClass().getMethod("search", String.class);
-            Object res = m.invoke(itemManager, query);
-            if (res instanceof Collection)
+            try
             {
-                List<Integer> list = new ArrayList<>();
-                for (Object o : (Collection<?>) res)
+                int row = catalog.row(Integer.parseInt(tokens[0]));
+                if (row >= 0)
                 {
-                    if (o instanceof Integer)
-                        list.add((Integer) o);
-                    else if (o != null)
-                    {
-                        try
-                        {
-                            Method mid = o.getClass().getMethod("getItemId");
-                            Object idObj = mid.invoke(o);
-                            if (idObj instanceof Integer) list.add((Integer) idObj);
-                        }
-                        catch (Exception ignore)
-                        {
-                            try
-                            {
-                                Method mid2 = o.getClass().getMethod("getId");
-                                Object idObj2 = mid2.invoke(o);
-                                if (idObj2 instanceof Integer) list.add((Integer) idObj2);
-                            }
-                            catch (Exception ignore2){}
-                        }
-                    }
+                    matches[row >>> 6] |= 1L << row;
+                    scores[row] = ItemSearchEngine.EXACT;
                 }
-                return list;
             }
+            catch (NumberFormatException ignored) {}
         }
-        catch (Exception ignored) {}
-        return Collections.emptyList();
+        return new SearchHits(catalog, matches, scores);
     }
 
-    private void ensureIndex()
+    private SortMode selectedSortMode()
     {
-        if (allItemIdsCache != null || buildingIndex) return;
-        buildingIndex = true;
-        int max = 40_000;
-        List<Integer> tmp = new ArrayList<>(9000);
-        for (int id = 1; id < max; id++)
-        {
-            try
-            {
-                ItemComposition comp = itemManager.getItemComposition(id);
-                if (comp != null)
-                {
-                    String nm = comp.getName();
-                    if (nm != null && !nm.equalsIgnoreCase("null"))
-                        tmp.add(id);
-                }
-            }
-            catch (Exception ignored){}
-        }
-        allItemIdsCache = tmp;
-        buildingIndex = false;
+        SortMode mode = (SortMode) sortCombo.getSelectedItem();
+        return mode != null ? mode : SortMode.ID_ASC;
     }
 
-    private List<String> extractActions(ItemComposition comp)
+    /** Fills the list with the ranking in the selected sort order (no comparators, no string work). */
+    private void showRanking(ItemCatalog catalog, SearchResultCache.Ranking ranking)
     {
-        List<String> act = new ArrayList<>();
-        String[] inv = comp.getInventoryActions();
-        if (inv != null)
-        {
-            for (String a : inv)
-                if (a != null && !a.equalsIgnoreCase("null") && !a.trim().isEmpty())
-                    act.add(a);
-        }
-        if (!act.contains("Examine")) act.add("Examine");
-        return act;
+        SortMode mode = selectedSortMode();
+        boolean byName = mode == SortMode.NAME_ASC || mode == SortMode.NAME_DESC;
+        boolean descending = mode == SortMode.NAME_DESC || mode == SortMode.ID_DESC;
+        listModel.setRanking(catalog, ranking.rows, ranking.order(catalog, byName, descending));
+    }
+
+    private void resortCurrentResults()
+    {
+        ItemCatalog catalog = ItemCatalog.peek();
+        if (currentRanking == null || catalog == null) return;
+        Result selected = resultList.getSelectedValue();
+        showRanking(catalog, currentRanking);
+        if (selected != null) resultList.setSelectedValue(selected, true);
     }
 
+    /* ================= Helpers ================= */
+
     private void updateDetails(Result r)
     {
         if (r == null || r.itemId <= 0)
@@ -564,14 +680,16 @@ public class ItemSearchDialog extends JDialog
             return;
         }
 
-        if (r.icon != null)
+        BufferedImage icon = ItemIconCache.get(r.itemId);
+        if (icon != null)
         {
-            Image scaled = r.icon.getScaledInstance(56, 56, Image.SCALE_FAST);
+            Image scaled = icon.getScaledInstance(56, 56, Image.SCALE_FAST);
             largeIconLabel.setIcon(new ImageIcon(scaled));
         }
         else
         {
             largeIconLabel.setIcon(null);
+            ItemIconCache.load(Collections.singleton(r.itemId), itemManager, clientThread, this::onIconsLoaded);
         }
 
         StringBuilder sb = new StringBuilder();
@@ -598,7 +716,6 @@ public class ItemSearchDialog extends JDialog
         final int itemId;
         final String itemName;
         final String listDisplay;
-        final BufferedImage icon;
         final boolean stackable;
         final boolean noted;
         final boolean placeholder;
@@ -608,7 +725,7 @@ public class ItemSearchDialog extends JDialog
         final boolean consumable;
         final List<String> actions;
 
-        private Result(int itemId, String itemName, String listDisplay, BufferedImage icon,
+        private Result(int itemId, String itemName, String listDisplay,
                        boolean stackable, boolean noted, boolean placeholder,
                        boolean normal, boolean members,
                        boolean wearable, boolean consumable,
@@ -617,7 +734,6 @@ public class ItemSearchDialog extends JDialog
             this.itemId = itemId;
             this.itemName = itemName != null ? itemName : listDisplay;
             this.listDisplay = listDisplay;
-            this.icon = icon;
             this.stackable = stackable;
             this.noted = noted;
             this.placeholder = placeholder;
@@ -628,9 +744,24 @@ public class ItemSearchDialog extends JDialog
             this.actions = actions;
         }
 
+        static Result of(ItemCatalog catalog, int row)
+        {
+            int id = catalog.id(row);
+            String name = catalog.name(row);
+            return new Result(id, name, name + " (" + id + ")",
+                    catalog.has(row, ItemCatalog.STACKABLE),
+                    catalog.has(row, ItemCatalog.NOTED),
+                    catalog.has(row, ItemCatalog.PLACEHOLDER),
+                    catalog.has(row, ItemCatalog.NORMAL),
+                    catalog.has(row, ItemCatalog.MEMBERS),
+                    catalog.has(row, ItemCatalog.WEARABLE),
+                    catalog.has(row, ItemCatalog.CONSUMABLE),
+                    catalog.actions(row));
+        }
+
         static Result placeholder(String text)
         {
-            return new Result(-1, text, text, null,
+            return new Result(-1, text, text,
                     false,false,false,false,false,false,false,
                     Collections.emptyList());
         }
@@ -650,15 +781,99 @@ public class ItemSearchDialog extends JDialog
         @Override public String toString(){ return label; }
     }
 
+    /**
+     * List model over either a short explicit list (placeholders, favorites and recents) or a
+     * ranked view of catalog rows. Ranked rows become {@link Result}s only when the list asks
+     * for them, and with a fixed cell height the list only asks for visible rows, so every
+     * replacement is published whole however long the ranking is. The first page of a search
+     * arrives earlier from {@link #showFirstPage}; the full ranking then replaces it.
+     */
+    private final class ResultListModel extends AbstractListModel<Result>
+    {
+        private List<Result> items = Collections.emptyList();
+        private ItemCatalog catalog;
+        private int[] rows;
+        private int[] order;  // indexes into rows, in display order
+        private int size;
+
+        @Override public int getSize() { return size; }
+
+        @Override
+        public Result getElementAt(int index)
+        {
+            return rows != null ? resultFor(catalog, rows[order[index]]) : items.get(index);
+        }
+
+        void clear() { setItems(Collections.emptyList()); }
+
+        void setItems(List<Result> list)
+        {
+            int old = replace();
+            items = new ArrayList<>(list);
+            size = items.size();
+            fireReplaced(old);
+        }
+
+        void setRanking(ItemCatalog catalog, int[] rows, int[] order)
+        {
+            int old = replace();
+            this.catalog = catalog;
+            this.rows = rows;
+            this.order = order;
+            size = order.length;
+            fireReplaced(old);
+        }
+
+        private int replace()
+        {
+            int old = size;
+            items = Collections.emptyList();
+            catalog = null;
+            rows = null;
+            order = null;
+            size = 0;
+            return old;
+        }
+
+        /** The tail that appeared or went away, then a change over the rows both sizes share. */
+        private void fireReplaced(int oldSize)
+        {
+            if (oldSize > 0) resultList.clearSelection(); // old indexes no longer mean the same rows
+            if (size < oldSize) fireIntervalRemoved(this, size, oldSize - 1);
+            else if (size > oldSize) fireIntervalAdded(this, oldSize, size - 1);
+            int common = Math.min(size, oldSize);
+            if (common > 0) fireContentsChanged(this, 0, common - 1);
+        }
+
+    }
+
+    /** Uncapped match set of one query; filters are applied to it on the EDT. */
+    private static class SearchHits
+    {
+        final ItemCatalog catalog;
+        final long[] matches;     // bit per catalog row
+        final byte[] scores;      // relevance tier per matching row
+
+        SearchHits(ItemCatalog catalog, long[] matches, byte[] scores)
+        {
+            this.catalog = catalog;
+            this.matches = matches;
+            this.scores = scores;
+        }
+    }
+
     private enum FilterFlag
     {
-        WEARABLE,
-        CONSUMABLE,
-        STACKABLE,
-        MEMBERS,
-        NOTED,
-        PLACEHOLDER,
-        NORMAL
+        WEARABLE(ItemCatalog.WEARABLE),
+        CONSUMABLE(ItemCatalog.CONSUMABLE),
+        STACKABLE(ItemCatalog.STACKABLE),
+        MEMBERS(ItemCatalog.MEMBERS),
+        NOTED(ItemCatalog.NOTED),
+        PLACEHOLDER(ItemCatalog.PLACEHOLDER),
+        NORMAL(ItemCatalog.NORMAL);
+
+        private final int catalogFlag;
+        FilterFlag(int catalogFlag){ this.catalogFlag = catalogFlag; }
     }
 
     /* ================= Rendering ================= */
@@ -667,6 +882,7 @@ public class ItemSearchDialog extends JDialog
     {
         private final JLabel iconLabel = new JLabel();
         private final JLabel textLabel = new JLabel();
+        private final ScaledIcon icon = new ScaledIcon(32);
         private final Font mainFont = fontPlain(LIST_MAIN_FONT_SIZE);
 
         Renderer()
@@ -701,13 +917,12 @@ public class ItemSearchDialog extends JDialog
             }
             else
             {
-                textLabel.setText(value.listDisplay);
-                if (value.icon != null)
-                {
-                    Image scaled = value.icon.getScaledInstance(32, 32, Image.SCALE_FAST);
-                    iconLabel.setIcon(new ImageIcon(scaled));
-                }
-                else iconLabel.setIcon(null);
+                textLabel.setText(value.itemId > 0 && recentItems.isFavorite(value.itemId)
+                        ? "★ " + value.listDisplay : value.listDisplay);
+                BufferedImage img = value.itemId > 0 ? ItemIconCache.get(value.itemId) : null;
+                if (img == null && value.itemId > 0) wantIcon(index);
+                icon.image = img;
+                iconLabel.setIcon(img != null ? icon : null);
             }
 
             Color baseBg = list.getBackground();
@@ -745,6 +960,22 @@ public class ItemSearchDialog extends JDialog
         }
     }
 
+    /** Reusable icon that draws an image scaled into a square, without allocating per paint. */
+    private static class ScaledIcon implements Icon
+    {
+        private final int size;
+        BufferedImage image;
+
+        ScaledIcon(int size){ this.size = size; }
+
+        @Override public void paintIcon(Component c, Graphics g, int x, int y)
+        {
+            if (image != null) g.drawImage(image, x, y, size, size, null);
+        }
+        @Override public int getIconWidth(){ return size; }
+        @Override public int getIconHeight(){ return size; }
+    }
+
     private static class AATextArea extends JTextArea
     {
         @Override protected void paintComponent(Graphics g)
@@ -0,0 +1,210 @@
+package com.krisped;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Worker pool for item searches. Name matching runs over an {@link ItemCatalog}
+ * snapshot, split into row partitions that are matched in parallel into one
+ * bitset over catalog rows, each match scored by relevance. Nothing here touches
+ * the client thread. Scans are cooperative: every partition checks its caller's
+ * cancellation flag first and aborts with a {@link CancellationException}.
+ */
+public class ItemSearchEngine
+{
+    private static final int PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static final int PARTITION_ROWS = 2_048; // rows matched sequentially per task
+
+    /* Relevance tiers, best first */
+    static final byte EXACT     = 0;
+    static final byte PREFIX    = 1;
+    static final byte WORD      = 2; // every token starts on a word boundary
+    static final byte SUBSTRING = 3;
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(PARALLELISM, pool -> {
+        ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        t.setName("loadout-item-search-" + t.getPoolIndex());
+        t.setDaemon(true);
+        return t;
+    }, null, false);
+
+    private ItemSearchEngine() {}
+
+    public static ForkJoinPool pool() { return POOL; }
+
+    /**
+     * Bitset of rows whose lower-cased name contains every token (bit {@code row} set).
+     * The relevance tier of each matching row is written to {@code scores[row]}.
+     * Throws {@link CancellationException} once {@code cancelled} reports true.
+     */
+    public static long[] matchNames(ItemCatalog catalog, String[] tokens, byte[] scores, BooleanSupplier cancelled)
+    {
+        long[] out = new long[catalog.words()];
+        if (tokens.length == 0) return out;
+        run(new MatchTask(catalog.lowerNames, tokens, String.join(" ", tokens), out, scores, cancelled, 0, catalog.size()));
+        return out;
+    }
+
+    /** Throws {@link CancellationException} if the search has been superseded. */
+    public static void checkCancelled(BooleanSupplier cancelled)
+    {
+        if (cancelled.getAsBoolean()) throw new CancellationException("Search superseded");
+    }
+
+    static byte score(String name, String query, String[] tokens)
+    {
+        if (name.equals(query)) return EXACT;
+        if (name.startsWith(query)) return PREFIX;
+        for (String t : tokens)
+            if (!startsOnWordBoundary(name, t)) return SUBSTRING;
+        return WORD;
+    }
+
+    private static boolean startsOnWordBoundary(String name, String token)
+    {
+        for (int i = name.indexOf(token); i >= 0; i = name.indexOf(token, i + 1))
+            if (i == 0 || !Character.isLetterOrDigit(name.charAt(i - 1))) return true;
+        return false;
+    }
+
+    /**
+     * The best {@code k} rows of {@code rows} by (score, row), best first. Uses a bounded
+     * max-heap so only {@code k} candidates are ever held or sorted.
+     */
+    public static int[] topK(long[] rows, byte[] scores, int k)
+    {
+        if (k <= 0) return new int[0];
+        long[] heap = new long[k]; // packed (score << 32 | row); root = worst kept
+        int size = 0;
+        for (int w = 0; w < rows.length; w++)
+        {
+            long bits = rows[w];
+            while (bits != 0)
+            {
+                int row = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                long key = ((long) scores[row] << 32) | row;
+                if (size < k)
+                {
+                    heap[size] = key;
+                    siftUp(heap, size++);
+                }
+                else if (key < heap[0])
+                {
+                    heap[0] = key;
+                    siftDown(heap, size);
+                }
+            }
+        }
+        long[] sorted = Arrays.copyOf(heap, size);
+        Arrays.sort(sorted);
+        int[] out = new int[size];
+        for (int i = 0; i < size; i++) out[i] = (int) sorted[i];
+        return out;
+    }
+
+    private static void siftUp(long[] heap, int i)
+    {
+        long key = heap[i];
+        while (i > 0)
+        {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] >= key) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = key;
+    }
+
+    private static void siftDown(long[] heap, int size)
+    {
+        long key = heap[0];
+        int i = 0;
+        for (int child = 1; child < size; child = 2 * i + 1)
+        {
+            if (child + 1 < size && heap[child + 1] > heap[child]) child++;
+            if (heap[child] <= key) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = key;
+    }
+
+    /** Word-wise {@code target &= mask}. */
+    public static void and(long[] target, long[] mask)
+    {
+        for (int i = 0; i < target.length; i++) target[i] &= mask[i];
+    }
+
+    public static int count(long[] bits)
+    {
+        int n = 0;
+        for (long w : bits) n += Long.bitCount(w);
+        return n;
+    }
+
+    public static boolean get(long[] bits, int row)
+    {
+        return (bits[row >>> 6] & (1L << row)) != 0;
+    }
+
+    private static void run(RecursiveAction task)
+    {
+        Thread t = Thread.currentThread();
+        boolean inPool = t instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) t).getPool() == POOL;
+        if (inPool) task.invoke(); else POOL.invoke(task);
+    }
+
+    /** Partitions are split on 64-row boundaries so each task owns whole words of the output. */
+    private static final class MatchTask extends RecursiveAction
+    {
+        private final String[] names;
+        private final String[] tokens;
+        private final String query;
+        private final long[] out;
+        private final byte[] scores;
+        private final BooleanSupplier cancelled;
+        private final int from;
+        private final int to;
+
+        MatchTask(String[] names, String[] tokens, String query, long[] out, byte[] scores,
+                  BooleanSupplier cancelled, int from, int to)
+        {
+            this.names = names;
+            this.tokens = tokens;
+            this.query = query;
+            this.out = out;
+            this.scores = scores;
+            this.cancelled = cancelled;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            checkCancelled(cancelled);
+            int mid = ((from + to) >>> 1) & ~63;
+            if (to - from <= PARTITION_ROWS || mid <= from)
+            {
+                for (int row = from; row < to; row++)
+                {
+                    String name = names[row];
+                    boolean all = true;
+                    for (String t : tokens)
+                        if (!name.contains(t)) { all = false; break; }
+                    if (!all) continue;
+                    out[row >>> 6] |= 1L << row;
+                    scores[row] = score(name, query, tokens);
+                }
+                return;
+            }
+            invokeAll(new MatchTask(names, tokens, query, out, scores, cancelled, from, mid),
+                    new MatchTask(names, tokens, query, out, scores, cancelled, mid, to));
+        }
+    }
+}
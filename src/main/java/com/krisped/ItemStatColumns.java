@@ -0,0 +1,147 @@
+package com.krisped;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.game.ItemEquipmentStats;
+import net.runelite.client.game.ItemManager;
+import net.runelite.client.game.ItemStats;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Equipment bonuses of every catalog row as primitive columns (one int[] per stat).
+ * Built once per {@link ItemCatalog} revision from {@code ItemManager.getItemStats},
+ * in chunks on the client thread; read-only afterwards so queries can scan the
+ * arrays from any thread.
+ */
+@Slf4j
+public class ItemStatColumns
+{
+    private static final int BUILD_CHUNK = 250; // rows captured per scheduler step
+
+    /** Stat columns; {@link #scale} converts fractional stats (magic damage %) to ints. */
+    enum Stat
+    {
+        ASTAB("astab"), ASLASH("aslash"), ACRUSH("acrush"), AMAGIC("amagic"), ARANGE("arange"),
+        DSTAB("dstab"), DSLASH("dslash"), DCRUSH("dcrush"), DMAGIC("dmagic"), DRANGE("drange"),
+        STR("str"), RSTR("rstr"), MDMG("mdmg", 10), PRAYER("prayer"), ASPEED("aspeed");
+
+        final String key;
+        final int scale;
+
+        Stat(String key) { this(key, 1); }
+        Stat(String key, int scale) { this.key = key; this.scale = scale; }
+    }
+
+    private static volatile ItemStatColumns current;
+    private static CompletableFuture<ItemStatColumns> pending;
+    private static int pendingRevision;
+
+    final int revision;
+    final int size;
+    final int[] slot;     // EquipmentInventorySlot index, -1 when not equipable
+    final int[][] stats;  // [Stat.ordinal()][row]
+
+    ItemStatColumns(int revision, int size) // package-private so tests can fill columns by hand
+    {
+        this.revision = revision;
+        this.size = size;
+        this.slot = new int[size];
+        Arrays.fill(slot, -1);
+        this.stats = new int[Stat.values().length][size];
+    }
+
+    int[] column(Stat stat) { return stats[stat.ordinal()]; }
+
+    /** Columns for {@code catalog} if they have already been built, otherwise null. */
+    public static ItemStatColumns peek(ItemCatalog catalog)
+    {
+        ItemStatColumns c = current;
+        return c != null && c.revision == catalog.revision ? c : null;
+    }
+
+    /** Columns for {@code catalog}, building them on the client thread first if needed. */
+    public static synchronized CompletableFuture<ItemStatColumns> load(ItemCatalog catalog, ItemManager itemManager,
+                                                                     ClientThread clientThread)
+    {
+        ItemStatColumns c = peek(catalog);
+        if (c != null) return CompletableFuture.completedFuture(c);
+        if (pending != null && pendingRevision == catalog.revision) return pending;
+        CompletableFuture<ItemStatColumns> f = new CompletableFuture<>();
+        pending = f;
+        pendingRevision = catalog.revision;
+        ClientTaskScheduler.submitJob(clientThread, ClientTaskScheduler.Priority.BULK, new Builder(catalog, itemManager, f));
+        return f;
+    }
+
+    private static synchronized void publish(CompletableFuture<ItemStatColumns> f, ItemStatColumns columns, Throwable error)
+    {
+        if (pending == f) pending = null;
+        if (columns != null) current = columns;
+        if (error != null) f.completeExceptionally(error); else f.complete(columns);
+    }
+
+    private static final class Builder implements BooleanSupplier
+    {
+        private final ItemCatalog catalog;
+        private final ItemManager itemManager;
+        private final CompletableFuture<ItemStatColumns> future;
+        private final ItemStatColumns out;
+        private final long started = System.nanoTime();
+        private int next = 0;
+
+        Builder(ItemCatalog catalog, ItemManager itemManager, CompletableFuture<ItemStatColumns> future)
+        {
+            this.catalog = catalog;
+            this.itemManager = itemManager;
+            this.future = future;
+            this.out = new ItemStatColumns(catalog.revision, catalog.size());
+        }
+
+        @Override
+        public boolean getAsBoolean()
+        {
+            try
+            {
+                int end = Math.min(out.size, next + BUILD_CHUNK);
+                for (; next < end; next++) capture(next);
+                if (next < out.size) return false;
+                log.debug("Item stat columns built: {} rows in {} ms", out.size, (System.nanoTime() - started) / 1_000_000);
+                publish(future, out, null);
+            }
+            catch (Exception ex)
+            {
+                publish(future, null, ex);
+            }
+            return true;
+        }
+
+        private void capture(int row)
+        {
+            ItemStats st;
+            try { st = itemManager.getItemStats(catalog.id(row)); }
+            catch (Exception ignored) { return; }
+            if (st == null || !st.isEquipable() || st.getEquipment() == null) return;
+            ItemEquipmentStats e = st.getEquipment();
+            out.slot[row] = e.getSlot();
+            int[][] s = out.stats;
+            s[Stat.ASTAB.ordinal()][row]  = e.getAstab();
+            s[Stat.ASLASH.ordinal()][row] = e.getAslash();
+            s[Stat.ACRUSH.ordinal()][row] = e.getAcrush();
+            s[Stat.AMAGIC.ordinal()][row] = e.getAmagic();
+            s[Stat.ARANGE.ordinal()][row] = e.getArange();
+            s[Stat.DSTAB.ordinal()][row]  = e.getDstab();
+            s[Stat.DSLASH.ordinal()][row] = e.getDslash();
+            s[Stat.DCRUSH.ordinal()][row] = e.getDcrush();
+            s[Stat.DMAGIC.ordinal()][row] = e.getDmagic();
+            s[Stat.DRANGE.ordinal()][row] = e.getDrange();
+            s[Stat.STR.ordinal()][row]    = e.getStr();
+            s[Stat.RSTR.ordinal()][row]   = e.getRstr();
+            s[Stat.MDMG.ordinal()][row]   = Math.round(e.getMdmg() * Stat.MDMG.scale);
+            s[Stat.PRAYER.ordinal()][row] = e.getPrayer();
+            s[Stat.ASPEED.ordinal()][row] = e.getAspeed();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.krisped;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.game.ItemManager;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical item ids over a whole {@link ItemCatalog} revision. Noted and placeholder
+ * rows fold onto the item they link to; charged, degraded, ornament and dose variants
+ * fold onto the item whose name has no such suffix. Both directions are tables: each row
+ * maps to its base, and each group's members are stored CSR-style (offsets + one flat
+ * member array), so every lookup is a couple of array reads. The table is built on a search worker when the catalog is published; until
+ * then {@link #peek()} returns null and callers fall back to raw ids.
+ */
+@Slf4j
+public class ItemVariants
+{
+    // One trailing variant marker: "(uncharged)", "(or)", "(t)", "(h3)", "(4)", "(t6)", " 75" (barrows degradation)
+    private static final Pattern VARIANT_SUFFIX = Pattern.compile(
+            "(?:\\s*\\((?:uncharged|charged|inactive|empty|deg|broken|or|g|t|cr|h[1-5]|t?\\d{1,2})\\)|\\s+(?:0|25|50|75|100))$");
+
+    private static volatile ItemVariants current;
+
+    private final ItemCatalog catalog;
+    private final int[] linkedRow;  // row with the note/placeholder link undone
+    private final int[] baseRow;    // canonical row of the variant group
+    private final int[] groupOf;    // group index per row
+    private final int[] groupStart; // CSR offsets into groupRows, one extra at the end
+    private final int[] groupRows;  // members of each group, ascending id
+
+    private ItemVariants(ItemCatalog catalog)
+    {
+        this.catalog = catalog;
+        int n = catalog.size();
+
+        linkedRow = new int[n];
+        for (int row = 0; row < n; row++)
+        {
+            int link = catalog.links[row];
+            int target = link > 0 ? catalog.row(link) : -1;
+            // Only fold onto a real item; a link to another linked row would chain
+            linkedRow[row] = target >= 0 && catalog.links[target] <= 0 ? target : row;
+        }
+
+        // Group real items by their suffix-free stem; the base is the item named exactly the stem
+        Map<String, Integer> groupByStem = new HashMap<>();
+        int[] stemGroup = new int[n];
+        int groups = 0;
+        for (int row = 0; row < n; row++)
+        {
+            if (linkedRow[row] != row) continue;
+            String stem = stem(catalog.lowerNames[row]);
+            Integer g = groupByStem.get(stem);
+            if (g == null) groupByStem.put(stem, g = groups++);
+            stemGroup[row] = g;
+        }
+        int[] groupBase = new int[groups];
+        Arrays.fill(groupBase, -1);
+        for (int row = 0; row < n; row++)
+        {
+            if (linkedRow[row] != row) continue;
+            int g = stemGroup[row];
+            int cur = groupBase[g];
+            if (cur < 0 || rank(row) < rank(cur)) groupBase[g] = row;
+        }
+
+        baseRow = new int[n];
+        groupOf = new int[n];
+        groupStart = new int[groups + 1];
+        for (int row = 0; row < n; row++)
+        {
+            int g = stemGroup[linkedRow[row]];
+            groupOf[row] = g;
+            baseRow[row] = groupBase[g];
+            groupStart[g + 1]++;
+        }
+        for (int g = 0; g < groups; g++) groupStart[g + 1] += groupStart[g];
+        groupRows = new int[n];
+        int[] fill = Arrays.copyOf(groupStart, groups);
+        for (int row = 0; row < n; row++) groupRows[fill[groupOf[row]]++] = row; // rows ascend, so members do too
+    }
+
+    /** Base candidates: an un-suffixed name first, then a normal (un-noted, non-placeholder) item, then the lowest id. */
+    private int rank(int row)
+    {
+        String name = catalog.lowerNames[row];
+        boolean plain = stem(name).equals(name);
+        return (plain ? 0 : 2) + (catalog.has(row, ItemCatalog.NORMAL) ? 0 : 1);
+    }
+
+    private static String stem(String lowerName)
+    {
+        String s = lowerName;
+        while (true)
+        {
+            String t = VARIANT_SUFFIX.matcher(s).replaceFirst("");
+            if (t.equals(s) || t.isEmpty()) return s;
+            s = t;
+        }
+    }
+
+    /** Table for {@code catalog}, built on first use per catalog revision. */
+    public static ItemVariants forCatalog(ItemCatalog catalog)
+    {
+        ItemVariants v = current;
+        if (v != null && v.catalog == catalog) return v;
+        synchronized (ItemVariants.class)
+        {
+            v = current;
+            if (v != null && v.catalog == catalog) return v;
+            long t0 = System.nanoTime();
+            v = new ItemVariants(catalog);
+            log.debug("Item variant table built: {} items, {} groups in {} ms", catalog.size(),
+                    v.groupStart.length - 1, (System.nanoTime() - t0) / 1_000_000);
+            current = v;
+            return v;
+        }
+    }
+
+    /** Table for the loaded catalog, or null while it (or the catalog) is still being built. Never builds. */
+    public static ItemVariants peek()
+    {
+        ItemVariants v = current;
+        ItemCatalog catalog = ItemCatalog.peek();
+        return v != null && catalog != null && v.catalog == catalog ? v : null;
+    }
+
+    /** Table for the shared catalog, loading the catalog and building the table off the EDT if needed. */
+    public static CompletableFuture<ItemVariants> load(ItemManager itemManager, ClientThread clientThread)
+    {
+        ItemVariants v = peek();
+        if (v != null) return CompletableFuture.completedFuture(v);
+        return ItemCatalog.load(itemManager, clientThread).thenApplyAsync(ItemVariants::forCatalog, ItemSearchEngine.pool());
+    }
+
+    /** Starts building the table for a freshly published catalog on a search worker. */
+    static void buildInBackground(ItemCatalog catalog)
+    {
+        ItemSearchEngine.pool().execute(() -> forCatalog(catalog));
+    }
+
+    /* ================= Lookup ================= */
+
+    /** Base item of the variant group; unknown ids map to themselves. */
+    public int canonical(int itemId)
+    {
+        int row = catalog.row(itemId);
+        return row >= 0 ? catalog.id(baseRow[row]) : itemId;
+    }
+
+    /** The unnoted item for a noted id and the real item for a placeholder; other ids unchanged. */
+    public int unlinked(int itemId)
+    {
+        int row = catalog.row(itemId);
+        return row >= 0 ? catalog.id(linkedRow[row]) : itemId;
+    }
+
+    /** Undoes a placeholder only (noted items stay noted). */
+    public int withoutPlaceholder(int itemId)
+    {
+        int row = catalog.row(itemId);
+        return row >= 0 && catalog.has(row, ItemCatalog.PLACEHOLDER) ? catalog.id(linkedRow[row]) : itemId;
+    }
+
+    /** True when both ids belong to the same variant group (e.g. a charged and an uncharged item). */
+    public boolean equivalent(int a, int b)
+    {
+        return a == b || (a > 0 && b > 0 && canonical(a) == canonical(b));
+    }
+
+    /** Every id in the variant group of {@code itemId} (including itself), ascending. */
+    public int[] variants(int itemId)
+    {
+        int row = catalog.row(itemId);
+        if (row < 0) return new int[] { itemId };
+        int g = groupOf[row];
+        int[] out = new int[groupStart[g + 1] - groupStart[g]];
+        for (int i = 0; i < out.length; i++) out[i] = catalog.id(groupRows[groupStart[g] + i]);
+        return out;
+    }
+
+    public String name(int itemId)
+    {
+        int row = catalog.row(itemId);
+        return row >= 0 ? catalog.name(row) : "Item " + itemId;
+    }
+}
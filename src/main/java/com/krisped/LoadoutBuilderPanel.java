@@ -3,8 +3,10 @@ package com.krisped;
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.annotations.SerializedName;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 import net.runelite.api.EquipmentInventorySlot;
+import net.runelite.api.GameState;
 import net.runelite.api.InventoryID;
 import net.runelite.api.Item;
 import net.runelite.api.ItemContainer;
@@ -22,7 +24,6 @@ import java.awt.*;
 import java.awt.datatransfer.StringSelection;
 import java.awt.image.BufferedImage;
 import java.io.OutputStream; // added
-import java.lang.reflect.Method;
 import java.util.*;
 import java.util.List;
 import java.util.function.Consumer;
@@ -38,9 +39,11 @@ import java.util.function.Consumer;
  * - Ingen duplikate metoder.
  */
 
+@Slf4j
 public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.SlotActionHandler
 {
     /* Layout */
+    private static final int PRESETS_TAB = 1;
     private static final int EQUIP_ROWS = 5;
     private static final int EQUIP_COLS = 3;
     private static final int INV_ROWS = 7;
@@ -61,6 +64,7 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
     private final ItemManager itemManager;
     private final ClientThread clientThread;
     private final Client client;
+    private final ItemInfoResolver itemInfo;
 
     /* Fonts */
     private Font runescape;
@@ -72,8 +76,8 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
     private final LoadoutSlot[] inventorySlots = new LoadoutSlot[28];
 
     /* UI */
-    private JPanel equipmentGrid;
-    private JPanel inventoryGrid;
+    private SlotGrid equipmentGrid;
+    private SlotGrid inventoryGrid;
     private JTextArea repcalArea;
     private JButton repcalButton;
     private JButton kittyKeysButton;
@@ -98,6 +102,13 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
     // Presets UI references
     private DefaultListModel<Loadout> presetsModel; // NEW
     private JList<Loadout> presetsList; // NEW
+    private JLabel presetsHeading;
+    private JButton loadPresetButton;
+    private JButton renamePresetButton;
+    private JButton deletePresetButton;
+    private JButton saveLoadoutButton;
+    private String loadoutsError; // cause shown when the saved loadouts failed to load
+    private PresetThumbnails thumbnails;
 
     private static final EquipmentInventorySlot[] EQ_INDEX_MAP = new EquipmentInventorySlot[]{
             EquipmentInventorySlot.HEAD,
@@ -119,17 +130,60 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
     // NEW: tracks currently loaded preset (null = unsaved/new)
     private Loadout currentLoadedLoadout;
 
+    // Item picker kept warm between slot clicks
+    private final RecentItems recentItems = new RecentItems();
+    private ItemSearchDialog itemSearchDialog;
+
     public LoadoutBuilderPanel(ItemManager itemManager, ClientThread clientThread, Client client, LoadoutManager loadoutManager, LoadoutBuilderConfig config)
     {
         super(false);
         this.itemManager = itemManager;
         this.clientThread = clientThread;
         this.client = client;
+        this.itemInfo = new ItemInfoResolver(clientThread, this::lookupItemInfo);
         this.loadoutManager = loadoutManager; // NEW
         this.config = config; // NEW
         setBackground(ColorScheme.DARK_GRAY_COLOR);
+        long t0 = System.nanoTime();
         initFonts();
         buildUI();
+        log.debug("Panel built in {} ms, {} components (Presets tab deferred)",
+                (System.nanoTime() - t0) / 1_000_000, countComponents(this));
+        if (loadoutManager != null)
+            loadoutManager.ready().whenComplete((m, ex) -> SwingUtilities.invokeLater(() -> onLoadoutsReady(ex)));
+    }
+
+    /** Leaves the loading state once the saved loadouts have been read, or reports why they were not. */
+    private void onLoadoutsReady(Throwable error)
+    {
+        if (error != null)
+        {
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            loadoutsError = cause.getMessage() != null ? cause.getMessage() : cause.toString();
+        }
+        refreshQuickPresetCombo();
+        refreshPresetList();
+        updateLoadoutActions();
+        if (error == null && client != null && client.getGameState() == GameState.LOGGED_IN) prefetchSavedLoadouts();
+    }
+
+    /** Why saved loadouts cannot be used, or null once they are loaded. */
+    private String loadoutsUnavailable()
+    {
+        if (loadoutManager == null || loadoutManager.isLoaded()) return null;
+        return loadoutManager.isReady() ? "Saved loadouts failed to load: " + loadoutsError : "Loading saved loadouts...";
+    }
+
+    /** Saving and changing loadouts stays disabled until the library has loaded. */
+    private void updateLoadoutActions()
+    {
+        String why = loadoutsUnavailable();
+        for (JComponent c : new JComponent[]{ saveLoadoutButton, quickPresetCombo, presetsList, loadPresetButton, renamePresetButton, deletePresetButton })
+        {
+            if (c == null) continue;
+            c.setEnabled(why == null);
+            c.setToolTipText(why);
+        }
     }
 
     /* Fonts */
@@ -179,14 +233,33 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
         builderContainer.add(scroll, BorderLayout.CENTER);
         tabbedPane.addTab("Builder", builderContainer);
 
-        // ===== Presets tab =====
-        JPanel presetsPanel = buildPresetsPanel();
-        tabbedPane.addTab("Presets", presetsPanel);
+        // ===== Presets tab (built on first selection; most sessions never open it) =====
+        tabbedPane.addTab("Presets", new JPanel());
+        tabbedPane.addChangeListener(e -> ensureTabBuilt(tabbedPane.getSelectedIndex()));
 
         add(tabbedPane, BorderLayout.CENTER);
         unifySectionWidths();
     }
 
+    private void ensureTabBuilt(int index)
+    {
+        if (index != PRESETS_TAB || presetsModel != null) return;
+        long t0 = System.nanoTime();
+        JPanel presets = buildPresetsPanel();
+        tabbedPane.setComponentAt(PRESETS_TAB, presets);
+        log.debug("Presets tab built on first use in {} ms, {} components",
+                (System.nanoTime() - t0) / 1_000_000, countComponents(presets));
+    }
+
+    /** Size of the component tree under {@code c}, itself included; only meant for the debug log. */
+    private static int countComponents(Component c)
+    {
+        int n = 1;
+        if (c instanceof Container)
+            for (Component child : ((Container) c).getComponents()) n += countComponents(child);
+        return n;
+    }
+
     // NEW: quick preset bar on top of builder
     private JPanel buildQuickPresetBar()
     {
@@ -247,6 +320,7 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
                 }
             }
         }
+        updateLoadoutActions();
         suppressComboEvent = false;
     }
 
@@ -257,24 +331,35 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
         panel.setLayout(new BorderLayout(4,4));
 
         // Heading for clarity
-        JLabel heading = new JLabel("Saved Loadouts");
+        presetsHeading = new JLabel("Saved Loadouts");
+        JLabel heading = presetsHeading;
         heading.setBorder(new EmptyBorder(6,8,2,8));
         heading.setFont((runescapeBold != null ? runescapeBold : fallback).deriveFont(Font.BOLD, TITLE_FONT_SIZE));
         panel.add(heading, BorderLayout.NORTH);
 
         presetsModel = new DefaultListModel<>();
         presetsList = new JList<>(presetsModel);
-        presetsList.setVisibleRowCount(12);
+        presetsList.setVisibleRowCount(6);
         Font listFont = (runescape != null ? runescape : fallback).deriveFont(Font.PLAIN, 15f);
         presetsList.setFont(listFont);
-        presetsList.setFixedCellHeight(24);
+        // Fixed cell size: the list never renders off-screen rows to measure them, so only visible rows load thumbnails
+        presetsList.setFixedCellHeight(PresetThumbnails.HEIGHT + 6);
+        presetsList.setFixedCellWidth(PresetThumbnails.WIDTH + 100);
+        thumbnails = new PresetThumbnails(itemManager, clientThread, presetsList::repaint);
+        Icon noThumbnail = new ImageIcon(new BufferedImage(PresetThumbnails.WIDTH, PresetThumbnails.HEIGHT, BufferedImage.TYPE_INT_ARGB));
         presetsList.setCellRenderer(new DefaultListCellRenderer(){
             @Override public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus)
             {
                 JLabel l = (JLabel) super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
                 l.setFont(listFont);
                 if (value instanceof Loadout)
-                    l.setText(((Loadout) value).getName());
+                {
+                    Loadout lo = (Loadout) value;
+                    l.setText(lo.getName());
+                    ImageIcon thumb = thumbnails.get(lo);
+                    l.setIcon(thumb != null ? thumb : noThumbnail);
+                    l.setIconTextGap(8);
+                }
                 l.setBorder(BorderFactory.createEmptyBorder(2,6,2,6));
                 return l;
             }
@@ -292,17 +377,17 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER,6,6));
         buttonPanel.setOpaque(false);
         Font btnFont = (runescape != null ? runescape : fallback).deriveFont(Font.PLAIN, 14f);
-        JButton loadButton = new JButton("Load");
-        JButton renameButton = new JButton("Rename");
-        JButton deleteButton = new JButton("Delete");
-        for (JButton b : new JButton[]{loadButton, renameButton, deleteButton})
+        loadPresetButton = new JButton("Load");
+        renamePresetButton = new JButton("Rename");
+        deletePresetButton = new JButton("Delete");
+        for (JButton b : new JButton[]{loadPresetButton, renamePresetButton, deletePresetButton})
         {
             b.setFont(btnFont); b.setFocusPainted(false);
         }
-        loadButton.addActionListener(e -> loadSelectedPreset());
-        renameButton.addActionListener(e -> renameSelectedPreset());
-        deleteButton.addActionListener(e -> deleteSelectedPreset());
-        buttonPanel.add(loadButton); buttonPanel.add(renameButton); buttonPanel.add(deleteButton);
+        loadPresetButton.addActionListener(e -> loadSelectedPreset());
+        renamePresetButton.addActionListener(e -> renameSelectedPreset());
+        deletePresetButton.addActionListener(e -> deleteSelectedPreset());
+        buttonPanel.add(loadPresetButton); buttonPanel.add(renamePresetButton); buttonPanel.add(deletePresetButton);
         panel.add(buttonPanel, BorderLayout.SOUTH);
 
         refreshPresetList();
@@ -316,10 +401,15 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
         presetsModel.clear();
         if (loadoutManager != null)
             for (Loadout l : loadoutManager.getAll()) presetsModel.addElement(l);
+        String why = loadoutsUnavailable();
+        presetsHeading.setText(why == null ? "Saved Loadouts" : loadoutManager.isReady() ? "Saved Loadouts (failed to load)" : "Saved Loadouts (loading...)");
+        presetsHeading.setToolTipText(why);
+        updateLoadoutActions();
     }
 
     private void saveCurrentLoadoutInteractively()
     {
+        if (loadoutsUnavailable() != null) return; // disabled until loaded
         if (currentLoadedLoadout != null)
         {
             // Offer overwrite of existing without typing name again
@@ -416,25 +506,25 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
     private void applyLoadout(Loadout l)
     {
         if (l == null) return;
-        resetAll();
+        if (repcalArea != null) repcalArea.setText("");
+        // Only slots that differ from the current builder state are touched; the rest keep icon and name
+        List<LoadoutSlot> filled = new ArrayList<>();
         // equipment
         for (EquipmentInventorySlot slot : EquipmentInventorySlot.values())
         {
             int idx = slot.ordinal();
-            if (idx < l.getEquipmentIds().length)
-            {
-                int id = l.getEquipmentIds()[idx];
-                int q = (idx < l.getEquipmentQty().length) ? l.getEquipmentQty()[idx] : 1;
-                if (id > 0) equipmentSlots.get(slot).setItem(id, q);
-            }
+            int id = idx < l.getEquipmentIds().length ? l.getEquipmentIds()[idx] : -1;
+            int q = (idx < l.getEquipmentQty().length) ? l.getEquipmentQty()[idx] : 1;
+            applySlot(equipmentSlots.get(slot), id, q, filled);
         }
         // inventory
-        for (int i = 0; i < inventorySlots.length && i < l.getInventoryIds().length; i++)
+        for (int i = 0; i < inventorySlots.length; i++)
         {
-            int id = l.getInventoryIds()[i];
+            int id = i < l.getInventoryIds().length ? l.getInventoryIds()[i] : -1;
             int q = (i < l.getInventoryQty().length) ? l.getInventoryQty()[i] : 1;
-            if (id > 0) inventorySlots[i].setItem(id, q);
+            applySlot(inventorySlots[i], id, q, filled);
         }
+        resolveItemInfo(filled);
         currentLoadedLoadout = l; // track loaded preset
         // sync combo selection
         if (quickPresetCombo != null)
@@ -484,7 +574,7 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
         Loadout sel = presetsList.getSelectedValue();
         if (sel == null) return;
         int res = JOptionPane.showConfirmDialog(this, "Delete loadout '"+sel.getName()+"'?", "Confirm Delete", JOptionPane.YES_NO_OPTION);
-        if (res != JOptionPane.YES_OPTION) return;
+        if (res != JOptionPane.YES_OPTION || loadoutsUnavailable() != null) return;
         loadoutManager.remove(sel);
         refreshPresetList();
         refreshQuickPresetCombo();
@@ -492,7 +582,7 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
 
     private void renameSelectedPreset()
     {
-        if (presetsList == null) return;
+        if (presetsList == null || loadoutsUnavailable() != null) return;
         Loadout sel = presetsList.getSelectedValue();
         if (sel == null) return;
         String newName = JOptionPane.showInputDialog(this, "New name:", sel.getName());
@@ -583,8 +673,8 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
         JPanel section = titledSection("Equipment");
         this.equipmentSection = section;
 
-        equipmentGrid = new JPanel(new GridLayout(EQUIP_ROWS, EQUIP_COLS, GRID_HGAP, GRID_VGAP));
-        equipmentGrid.setOpaque(false);
+        equipmentGrid = new SlotGrid(EQUIP_ROWS, EQUIP_COLS, GRID_HGAP, GRID_VGAP,
+                (runescapeBold != null ? runescapeBold : fallback).deriveFont(Font.BOLD, SLOT_LABEL_FONT_SIZE));
 
         for (EquipmentInventorySlot slot : EquipmentInventorySlot.values())
             equipmentSlots.put(slot, new LoadoutSlot(itemManager, this, slot.ordinal(), true));
@@ -598,35 +688,9 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
         };
 
         for (int r = 0; r < EQUIP_ROWS; r++)
-        {
             for (int c = 0; c < EQUIP_COLS; c++)
-            {
-                EquipmentInventorySlot slot = layout[r][c];
-                JPanel cell = new JPanel();
-                cell.setOpaque(false);
-                cell.setLayout(new BoxLayout(cell, BoxLayout.Y_AXIS));
-                if (slot != null)
-                {
-                    LoadoutSlot ls = equipmentSlots.get(slot);
-                    ls.setAlignmentX(Component.CENTER_ALIGNMENT);
-                    cell.add(ls);
-
-                    JLabel lbl = makeSlotLabel(slot);
-                    Dimension lp = lbl.getPreferredSize();
-                    lbl.setMaximumSize(lp);
-                    lbl.setMinimumSize(lp);
-                    cell.add(lbl);
-                }
-                else
-                {
-                    // Tom celle for å holde gridden jevn
-                    cell.add(Box.createVerticalStrut(50 + 14));
-                }
-                equipmentGrid.add(cell);
-            }
-        }
-
-        lockPanelSize(equipmentGrid);
+                if (layout[r][c] != null)
+                    equipmentGrid.put(r, c, equipmentSlots.get(layout[r][c]), slotLabel(layout[r][c]));
 
         // Sentrer equipment grid
         JPanel eqHolder = new JPanel(new FlowLayout(FlowLayout.CENTER, 0, 0));
@@ -658,21 +722,15 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
         JPanel section = titledSection("Inventory");
         this.inventorySection = section;
 
-        inventoryGrid = new JPanel(new GridLayout(INV_ROWS, INV_COLS, GRID_HGAP, GRID_VGAP));
-        inventoryGrid.setOpaque(false);
+        inventoryGrid = new SlotGrid(INV_ROWS, INV_COLS, GRID_HGAP, GRID_VGAP, null);
 
         for (int i = 0; i < inventorySlots.length; i++)
         {
             LoadoutSlot slot = new LoadoutSlot(itemManager, this, i, false);
             inventorySlots[i] = slot;
-            JPanel holder = new JPanel();
-            holder.setOpaque(false);
-            holder.setLayout(new BoxLayout(holder, BoxLayout.Y_AXIS));
-            holder.add(slot);
-            inventoryGrid.add(holder);
+            inventoryGrid.put(i / INV_COLS, i % INV_COLS, slot, null);
         }
 
-        lockPanelSize(inventoryGrid);
 
         // Inventory venstrejustert
         JPanel invHolder = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
@@ -739,10 +797,11 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
 
         // Embedded save button (keeps original vertical flow)
         section.add(Box.createVerticalStrut(4));
-        JButton saveBtn = makeButton("Save loadout");
-        saveBtn.addActionListener(e -> saveCurrentLoadoutInteractively());
-        saveBtn.setAlignmentX(Component.LEFT_ALIGNMENT);
-        section.add(saveBtn);
+        saveLoadoutButton = makeButton("Save loadout");
+        saveLoadoutButton.addActionListener(e -> saveCurrentLoadoutInteractively());
+        saveLoadoutButton.setAlignmentX(Component.LEFT_ALIGNMENT);
+        section.add(saveLoadoutButton);
+        updateLoadoutActions();
 
         constrainSectionWidth(section);
         return section;
@@ -781,17 +840,6 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
         section.setMaximumSize(new Dimension(pref.width, Integer.MAX_VALUE));
     }
 
-    private JLabel makeSlotLabel(EquipmentInventorySlot slot)
-    {
-        String txt = slotLabel(slot);
-        JLabel lbl = new JLabel(txt, SwingConstants.CENTER);
-        lbl.setAlignmentX(Component.CENTER_ALIGNMENT);
-        lbl.setFont((runescapeBold != null ? runescapeBold : fallback)
-                .deriveFont(Font.BOLD, SLOT_LABEL_FONT_SIZE));
-        lbl.setForeground(new Color(220,220,220));
-        return lbl;
-    }
-
     private String slotLabel(EquipmentInventorySlot slot)
     {
         switch (slot)
@@ -811,16 +859,6 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
         }
     }
 
-    private void lockPanelSize(JPanel panel)
-    {
-        // Lås gridet til preferert størrelse slik at det ikke strekkes ved resize
-        panel.doLayout();
-        Dimension pref = panel.getPreferredSize();
-        panel.setPreferredSize(pref);
-        panel.setMinimumSize(pref);
-        panel.setMaximumSize(pref);
-    }
-
     /* Basic actions */
     private void resetAll()
     {
@@ -831,13 +869,14 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
 
     private void copyLoadout()
     {
-        clientThread.invoke(() -> {
+        ClientTaskScheduler.submit(clientThread, ClientTaskScheduler.Priority.INTERACTIVE, () -> {
             ItemContainer eq = client.getItemContainer(InventoryID.EQUIPMENT);
             ItemContainer inv = client.getItemContainer(InventoryID.INVENTORY);
             Item[] eqItems = eq != null ? eq.getItems() : new Item[0];
             Item[] invItems = inv != null ? inv.getItems() : new Item[0];
 
             SwingUtilities.invokeLater(() -> {
+                List<LoadoutSlot> filled = new ArrayList<>();
                 for (EquipmentInventorySlot slot : EquipmentInventorySlot.values())
                 {
                     int idx = slot.getSlotIdx();
@@ -852,7 +891,7 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
                             qty = it.getQuantity();
                         }
                     }
-                    equipmentSlots.get(slot).setItem(id, qty);
+                    assign(equipmentSlots.get(slot), id, qty, filled);
                 }
                 for (int i = 0; i < inventorySlots.length; i++)
                 {
@@ -867,8 +906,9 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
                             qty = it.getQuantity();
                         }
                     }
-                    inventorySlots[i].setItem(id, qty);
+                    assign(inventorySlots[i], id, qty, filled);
                 }
+                resolveItemInfo(filled);
             });
         });
     }
@@ -895,7 +935,7 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
     /* Repcal export */
     private void generateRepcalString()
     {
-        clientThread.invoke(() -> {
+        ClientTaskScheduler.submit(clientThread, ClientTaskScheduler.Priority.NORMAL, () -> {
             StringBuilder sb = new StringBuilder();
             EquipmentInventorySlot[] order = {
                     EquipmentInventorySlot.BOOTS,
@@ -990,7 +1030,7 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
 
         final int finalTickCount = tickCount;
 
-        clientThread.invoke(() -> {
+        ClientTaskScheduler.submit(clientThread, ClientTaskScheduler.Priority.NORMAL, () -> {
             StringBuilder sb = new StringBuilder();
             EquipmentInventorySlot[] order = {
                     EquipmentInventorySlot.HEAD,
@@ -1043,7 +1083,7 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
                 {
                     ItemComposition comp = itemManager.getItemComposition(id);
                     rawName = sanitizeItemName(comp.getName());
-                    stackable = comp.isStackable() || comp.getNote() != -1;
+                    stackable = isStackable(id, comp);
                 }
                 catch (Exception ignored) {}
                 int qty = Math.max(1, ls.getQuantity());
@@ -1117,73 +1157,132 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
         }
         if (hasInv) for (LoadoutSlot s : inventorySlots) s.clear();
 
-        clientThread.invoke(() -> {
-            List<String> errors = new ArrayList<>();
-            int invPtr = 0;
+        // Every distinct name is resolved in one batch on a search worker; placement is one EDT pass
+        List<String> names = new ArrayList<>();
+        for (RepcalLine l : lines) names.add(l.name);
+        ItemCatalog.load(itemManager, clientThread)
+                .thenApplyAsync(catalog -> {
+                    ItemVariants.forCatalog(catalog); // placement below maps notes and placeholders through it
+                    return ItemNameResolver.forCatalog(catalog).resolveAll(names);
+                }, ItemSearchEngine.pool())
+                .whenComplete((resolved, ex) -> SwingUtilities.invokeLater(() -> {
+                    if (ex != null)
+                    {
+                        JOptionPane.showMessageDialog(this, "Item index unavailable: " + ex.getMessage(),
+                                "Import", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+                    placeRepcalLines(lines, resolved, codeMap);
+                }));
+    }
+
+    private void placeRepcalLines(List<RepcalLine> lines, Map<String, ItemNameResolver.Resolution> resolved,
+                                  Map<String, EquipmentInventorySlot> codeMap)
+    {
+        ItemCatalog catalog = ItemCatalog.peek();
+        ItemVariants variants = ItemVariants.peek();
+        List<String> errors = new ArrayList<>();
+        List<RepcalLine> unresolved = new ArrayList<>();
+        Set<String> reported = new HashSet<>();
+        List<LoadoutSlot> filled = new ArrayList<>();
+        int invPtr = 0;
+
+        for (RepcalLine l : lines)
+        {
+            boolean inventory = l.code.equalsIgnoreCase("I");
+            EquipmentInventorySlot slot = inventory ? null : codeMap.get(l.code.toUpperCase(Locale.ROOT));
+            if (!inventory && slot == null)
+            {
+                errors.add("Unknown code: " + l.code);
+                continue;
+            }
+            ItemNameResolver.Resolution r = resolved.getOrDefault(l.name.trim(), ItemNameResolver.Resolution.NONE);
+            String problem = r.problem(l.name);
+            if (problem != null && reported.add(problem)) errors.add(problem);
+            if (!r.found())
+            {
+                unresolved.add(l);
+                continue;
+            }
+            // Placeholders become the real item; equipment also drops the note
+            int itemId = variants == null ? r.itemId : inventory ? variants.withoutPlaceholder(r.itemId) : variants.unlinked(r.itemId);
 
-            for (RepcalLine l : lines)
+            if (inventory)
             {
-                if (l.code.equalsIgnoreCase("I"))
+                int row = catalog != null ? catalog.row(itemId) : -1;
+                boolean stackable = row >= 0 && catalog.has(row, ItemCatalog.STACKABLE);
+                int qty = Math.max(1, l.quantity);
+                if (stackable)
                 {
-                    int itemId = resolveItemId(l.name, errors);
-                    if (itemId <= 0) continue;
-                    boolean stackable = false;
-                    try
+                    while (invPtr < inventorySlots.length && inventorySlots[invPtr].getItemId() > 0) invPtr++;
+                    if (invPtr >= inventorySlots.length)
                     {
-                        ItemComposition comp = itemManager.getItemComposition(itemId);
-                        stackable = comp.isStackable() || comp.getNote() != -1;
+                        errors.add("Inventory full (stackable " + l.name + ")");
+                        continue;
                     }
-                    catch (Exception ignored) {}
-
-                    int qty = Math.max(1, l.quantity);
-                    if (stackable)
+                    assign(inventorySlots[invPtr++], itemId, qty, filled);
+                }
+                else
+                {
+                    for (int i = 0; i < qty; i++)
                     {
                         while (invPtr < inventorySlots.length && inventorySlots[invPtr].getItemId() > 0) invPtr++;
                         if (invPtr >= inventorySlots.length)
                         {
-                            errors.add("Inventory full (stackable " + l.name + ")");
-                            continue;
-                        }
-                        final int idx = invPtr++;
-                        SwingUtilities.invokeLater(() -> inventorySlots[idx].setItem(itemId, qty));
-                    }
-                    else
-                    {
-                        for (int i = 0; i < qty; i++)
-                        {
-                            while (invPtr < inventorySlots.length && inventorySlots[invPtr].getItemId() > 0) invPtr++;
-                            if (invPtr >= inventorySlots.length)
-                            {
-                                errors.add("Inventory full (" + l.name + ")");
-                                break;
-                            }
-                            final int idx = invPtr++;
-                            SwingUtilities.invokeLater(() -> inventorySlots[idx].setItem(itemId, 1));
+                            errors.add("Inventory full (" + l.name + ")");
+                            break;
                         }
+                        assign(inventorySlots[invPtr++], itemId, 1, filled);
                     }
                 }
-                else
-                {
-                    EquipmentInventorySlot slot = codeMap.get(l.code.toUpperCase(Locale.ROOT));
-                    if (slot == null)
-                    {
-                        errors.add("Unknown code: " + l.code);
-                        continue;
-                    }
-                    int itemId = resolveItemId(l.name, errors);
-                    if (itemId <= 0) continue;
-                    final int q = Math.max(1, l.quantity);
-                    SwingUtilities.invokeLater(() -> equipmentSlots.get(slot).setItem(itemId, q));
-                }
             }
+            else assign(equipmentSlots.get(slot), itemId, Math.max(1, l.quantity), filled);
+        }
+        resolveItemInfo(filled);
 
-            if (!errors.isEmpty())
+        if (!errors.isEmpty())
+        {
+            JOptionPane.showMessageDialog(this, String.join("\n", errors),
+                    "Import issues", JOptionPane.WARNING_MESSAGE);
+            if (!unresolved.isEmpty()) correctUnresolved(unresolved, codeMap);
+        }
+    }
+
+    /**
+     * Offers to pick each unresolved import name by hand; every pick is placed and
+     * remembered as a learned alias so the same shorthand resolves next time.
+     */
+    private void correctUnresolved(List<RepcalLine> unresolved, Map<String, EquipmentInventorySlot> codeMap)
+    {
+        int choice = JOptionPane.showConfirmDialog(this,
+                unresolved.size() + " item name(s) could not be resolved. Pick them manually?\n"
+                        + "Your picks are remembered for future imports.",
+                "Import", JOptionPane.YES_NO_OPTION);
+        if (choice != JOptionPane.YES_OPTION) return;
+
+        ItemCatalog catalog = ItemCatalog.peek();
+        for (RepcalLine l : unresolved)
+        {
+            int itemId = itemSearchDialog().pick(this, l.name);
+            if (itemId <= 0) continue;
+            int row = catalog != null ? catalog.row(itemId) : -1;
+            if (row >= 0) ItemAliases.learn(l.name, catalog.name(row));
+            int qty = Math.max(1, l.quantity);
+            if (!l.code.equalsIgnoreCase("I"))
             {
-                SwingUtilities.invokeLater(() ->
-                        JOptionPane.showMessageDialog(this, String.join("\n", errors),
-                                "Import issues", JOptionPane.WARNING_MESSAGE));
+                EquipmentInventorySlot slot = codeMap.get(l.code.toUpperCase(Locale.ROOT));
+                if (slot != null) equipmentSlots.get(slot).setItem(itemId, qty);
+                continue;
             }
-        });
+            boolean stackable = row >= 0 && catalog.has(row, ItemCatalog.STACKABLE);
+            for (int placed = 0; placed < (stackable ? 1 : qty); placed++)
+            {
+                LoadoutSlot free = null;
+                for (LoadoutSlot s : inventorySlots) if (s.getItemId() <= 0) { free = s; break; }
+                if (free == null) break;
+                free.setItem(itemId, stackable ? qty : 1);
+            }
+        }
     }
 
     private boolean looksLikeJsonLoadout(String text)
@@ -1209,6 +1308,8 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
         }
 
         resetAll();
+        ItemVariants variants = ItemVariants.peek();
+        List<LoadoutSlot> filled = new ArrayList<>();
         if (root.setup.inv != null)
         {
             for (int i = 0; i < Math.min(28, root.setup.inv.size()); i++)
@@ -1216,7 +1317,7 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
                 JsonItem ji = root.setup.inv.get(i);
                 if (ji == null || ji.id <= 0) continue;
                 int qty = ji.q != null && ji.q > 0 ? ji.q : 1;
-                inventorySlots[i].setItem(ji.id, qty);
+                assign(inventorySlots[i], variants != null ? variants.withoutPlaceholder(ji.id) : ji.id, qty, filled);
             }
         }
         if (root.setup.eq != null)
@@ -1229,9 +1330,10 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
                 EquipmentInventorySlot slot = EQ_INDEX_MAP[i];
                 if (slot == null) continue;
                 int qty = ji.q != null && ji.q > 0 ? ji.q : 1;
-                equipmentSlots.get(slot).setItem(ji.id, qty);
+                assign(equipmentSlots.get(slot), variants != null ? variants.unlinked(ji.id) : ji.id, qty, filled);
             }
         }
+        resolveItemInfo(filled);
         JOptionPane.showMessageDialog(this, "JSON loadout imported.",
                 "JSON Import", JOptionPane.INFORMATION_MESSAGE);
         return true;
@@ -1307,7 +1409,7 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
             try
             {
                 ItemComposition comp = itemManager.getItemComposition(id);
-                stackable = comp.isStackable() || comp.getNote() != -1;
+                stackable = isStackable(id, comp);
             }
             catch (Exception ignored) {}
             String outQty;
@@ -1331,7 +1433,7 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
             {
                 ItemComposition comp = itemManager.getItemComposition(id);
                 name = sanitizeItemName(comp.getName());
-                stackable = comp.isStackable() || comp.getNote() != -1;
+                stackable = isStackable(id, comp);
             }
             catch (Exception ignored) {}
             int qty = (i < invQty.length && invQty[i] > 0) ? invQty[i] : 1;
@@ -1399,7 +1501,7 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
             {
                 ItemComposition comp = itemManager.getItemComposition(id);
                 rawName = sanitizeItemName(comp.getName());
-                stackable = comp.isStackable() || comp.getNote() != -1;
+                stackable = isStackable(id, comp);
             }
             catch (Exception ignored) {}
             int qty = Math.max(1, ls.getQuantity());
@@ -1438,7 +1540,7 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
             JOptionPane.showMessageDialog(this, "Discord webhook not set in config.", "Webhook", JOptionPane.WARNING_MESSAGE);
             return;
         }
-        clientThread.invokeLater(() -> {
+        ClientTaskScheduler.submit(clientThread, ClientTaskScheduler.Priority.NORMAL, () -> {
             String title = loadout.getName();
             String body = repcal ? buildRepcalForLoadout(loadout) : buildKittyKeysForLoadout(loadout, 4);
             String payloadText = title + "\n```\n" + body + "\n```";
@@ -1484,6 +1586,15 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
         }, "WebhookSender").start();
     }
 
+    /** Stackable (including noted) per the variant table's catalog flags; composition fallback until it is loaded. */
+    private static boolean isStackable(int itemId, ItemComposition comp)
+    {
+        ItemCatalog catalog = ItemCatalog.peek();
+        int row = catalog != null ? catalog.row(itemId) : -1;
+        if (row >= 0) return catalog.has(row, ItemCatalog.STACKABLE);
+        return comp.isStackable() || comp.getNote() != -1;
+    }
+
     private static final String MEMBERS_SUFFIX_REGEX = "(?i) \\((members)\\)$"; // strip trailing (members)
     private static String sanitizeItemName(String s)
     {
@@ -1519,30 +1630,85 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
     @Override
     public void requestItemInfoOnClientThread(LoadoutSlot slot, int itemId)
     {
-        clientThread.invoke(() -> {
-            try
-            {
-                ItemComposition comp = itemManager.getItemComposition(itemId);
-                String name = sanitizeItemName(comp.getName());
-                boolean stackable = comp.isStackable() || comp.getNote() != -1;
-                BufferedImage icon = itemManager.getImage(itemId);
-                SwingUtilities.invokeLater(() -> slot.setResolvedItemInfo(name, icon, stackable));
-            }
-            catch (Exception ex)
-            {
-                SwingUtilities.invokeLater(() -> slot.setResolvedItemInfo(null, null, false));
-            }
-        });
+        resolveItemInfo(Collections.singletonList(slot));
+    }
+
+    /** Brings one slot to (itemId, qty), leaving it untouched when it already holds that. */
+    private static void applySlot(LoadoutSlot slot, int itemId, int qty, List<LoadoutSlot> filled)
+    {
+        if (itemId <= 0)
+        {
+            if (slot.getItemId() > 0) slot.clear();
+            return;
+        }
+        if (slot.getItemId() != itemId) assign(slot, itemId, qty, filled);
+        else if (slot.getQuantity() != Math.max(1, qty)) slot.setQuantityInternal(qty);
+    }
+
+    /** Assigns an item without resolving it yet; {@code filled} collects the slot for {@link #resolveItemInfo}. */
+    private static void assign(LoadoutSlot slot, int itemId, int qty, List<LoadoutSlot> filled)
+    {
+        slot.assignItem(itemId, qty);
+        if (itemId > 0) filled.add(slot);
+    }
+
+    /** Resolves name, icon and stackability for many slots; see {@link ItemInfoResolver}. */
+    private void resolveItemInfo(List<LoadoutSlot> slots)
+    {
+        if (!slots.isEmpty()) itemInfo.resolve(slots);
+    }
+
+    /** Client thread only. */
+    private ItemInfoResolver.ItemInfo lookupItemInfo(int itemId)
+    {
+        ItemComposition comp = itemManager.getItemComposition(itemId);
+        return new ItemInfoResolver.ItemInfo(sanitizeItemName(comp.getName()), itemManager.getImage(itemId),
+                isStackable(itemId, comp));
     }
 
     @Override
     public void onLeftClick(LoadoutSlot slot, boolean isEquipment, int index)
     {
-        int chosen = ItemSearchDialog.showDialog(this, itemManager, clientThread);
+        int chosen = itemSearchDialog().pick(this);
         if (chosen > 0)
             slot.setItem(chosen, 1);
     }
 
+    /** Warms item info for every item in the saved presets (EDT); called once the client is logged in. */
+    void prefetchSavedLoadouts()
+    {
+        if (loadoutManager == null) return;
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (Loadout l : loadoutManager.getAll())
+        {
+            for (int id : l.getEquipmentIds()) if (id > 0) ids.add(id);
+            for (int id : l.getInventoryIds()) if (id > 0) ids.add(id);
+        }
+        itemInfo.prefetch(ids);
+    }
+
+    /** Releases the warm item search dialog; called when the plugin shuts down. */
+    void shutDown()
+    {
+        if (thumbnails != null) thumbnails.shutDown();
+        if (itemSearchDialog != null)
+        {
+            itemSearchDialog.dispose();
+            itemSearchDialog = null;
+        }
+    }
+
+    private ItemSearchDialog itemSearchDialog()
+    {
+        Frame owner = JOptionPane.getFrameForComponent(this);
+        if (itemSearchDialog == null || itemSearchDialog.getOwner() != owner)
+        {
+            if (itemSearchDialog != null) itemSearchDialog.dispose();
+            itemSearchDialog = ItemSearchDialog.create(this, itemManager, clientThread, recentItems);
+        }
+        return itemSearchDialog;
+    }
+
     @Override
     public void onAddAmount(LoadoutSlot slot, int delta)
     {
@@ -1640,6 +1806,56 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
         target.setItem(srcId, srcId > 0 ? srcQty : 0);
     }
 
+    /** Lists the saved presets that use {@code itemId} or any of its variants (noted, charged, ornament...). */
+    public void showWhereUsed(int itemId)
+    {
+        ItemVariants.load(itemManager, clientThread).whenComplete((variants, ex) -> SwingUtilities.invokeLater(() -> {
+            if (ex != null) return;
+            int base = variants.canonical(itemId);
+            Set<Integer> group = new HashSet<>();
+            for (int id : variants.variants(itemId)) group.add(id);
+            StringBuilder sb = new StringBuilder();
+            int presets = 0;
+            for (Loadout l : loadoutManager.getAll())
+            {
+                Map<Integer, Integer> counts = new TreeMap<>();
+                countVariants(group, l.getEquipmentIds(), l.getEquipmentQty(), counts);
+                countVariants(group, l.getInventoryIds(), l.getInventoryQty(), counts);
+                if (counts.isEmpty()) continue;
+                presets++;
+                sb.append(l.getName()).append(": ");
+                List<String> parts = new ArrayList<>();
+                for (Map.Entry<Integer, Integer> e : counts.entrySet())
+                    parts.add(e.getValue() + " x " + variants.name(e.getKey()));
+                sb.append(String.join(", ", parts)).append('\n');
+            }
+            String title = "Where used: " + variants.name(base);
+            String msg = presets == 0 ? "No saved preset uses " + variants.name(base) + " or its variants."
+                    : presets + " preset(s):\n" + sb.toString().trim();
+            JOptionPane.showMessageDialog(this, msg, title, JOptionPane.INFORMATION_MESSAGE);
+        }));
+    }
+
+    private static void countVariants(Set<Integer> group, int[] ids, int[] qty, Map<Integer, Integer> counts)
+    {
+        if (ids == null) return;
+        for (int i = 0; i < ids.length; i++)
+        {
+            if (ids[i] <= 0 || !group.contains(ids[i])) continue;
+            int q = qty != null && i < qty.length && qty[i] > 0 ? qty[i] : 1;
+            counts.merge(ids[i], q, Integer::sum);
+        }
+    }
+
+    /** The equipment and inventory grids currently on screen, for arithmetic drop-target lookup. */
+    List<SlotGrid> visibleSlotGrids()
+    {
+        List<SlotGrid> out = new ArrayList<>(2);
+        for (SlotGrid g : new SlotGrid[]{ equipmentGrid, inventoryGrid })
+            if (g != null && g.isShowing()) out.add(g);
+        return out;
+    }
+
     public LoadoutSlot[] getInventorySlots()
     {
         return inventorySlots;
@@ -1719,80 +1935,5 @@ public class LoadoutBuilderPanel extends PluginPanel implements LoadoutSlot.Slot
         return m;
     }
 
-    private static final Map<String,Integer> NAME_CACHE = new HashMap<>();
-    private static volatile boolean NAME_CACHE_BUILT = false;
-
-    private synchronized void buildNameCache()
-    {
-        if (NAME_CACHE_BUILT) return;
-        // Heuristic upper bound – RuneLite item IDs currently < 60k.
-        final int MAX_ID = 60000;
-        for (int id = 0; id <= MAX_ID; id++)
-        {
-            try
-            {
-                ItemComposition comp = itemManager.getItemComposition(id);
-                if (comp == null) continue;
-                String nm = sanitizeItemName(comp.getName());
-                if (nm.isEmpty() || nm.equalsIgnoreCase("null")) continue;
-                NAME_CACHE.putIfAbsent(nm.toLowerCase(Locale.ROOT), id);
-            }
-            catch (Exception ignored) {}
-        }
-        NAME_CACHE_BUILT = true;
-    }
-
-    private int resolveItemId(String rawName, List<String> errors)
-    {
-        if (rawName == null) return -1;
-        String name = rawName.trim();
-        if (name.isEmpty()) return -1;
-        // Direct numeric id
-        try { return Integer.parseInt(name); } catch (NumberFormatException ignored) {}
-
-        String sanitized = sanitizeItemName(name).toLowerCase(Locale.ROOT);
-
-        // Try reflective search on ItemManager (RuneLite internal) if available
-        try
-        {
-            Method m = itemManager.getClass().getDeclaredMethod("search", String.class);
-            m.setAccessible(true);
-            @SuppressWarnings("unchecked") List<Integer> ids = (List<Integer>) m.invoke(itemManager, sanitized);
-            if (ids != null)
-            {
-                for (Integer id : ids)
-                {
-                    if (id == null || id <= 0) continue;
-                    try
-                    {
-                        ItemComposition comp = itemManager.getItemComposition(id);
-                        if (comp == null) continue;
-                        String nm = sanitizeItemName(comp.getName());
-                        if (nm.equalsIgnoreCase(name) || nm.equalsIgnoreCase(sanitized)) return id;
-                        // Accept contains match if unique
-                        if (nm.equalsIgnoreCase(name)) return id;
-                    }
-                    catch (Exception ignored) {}
-                }
-                if (ids.size() == 1 && ids.get(0) != null && ids.get(0) > 0) return ids.get(0);
-            }
-        }
-        catch (Exception ignored) {}
-
-        // Fallback: build cache and lookup exact name
-        buildNameCache();
-        Integer id = NAME_CACHE.get(sanitized);
-        if (id != null) return id;
-
-        // Fuzzy: try linear scan over cache for contains (first match)
-        for (Map.Entry<String,Integer> e : NAME_CACHE.entrySet())
-        {
-            if (e.getKey().contains(sanitized)) return e.getValue();
-        }
-
-        if (errors != null)
-            errors.add("Item not found: " + rawName);
-        return -1;
-    }
     // ================= End added helpers =================
 }
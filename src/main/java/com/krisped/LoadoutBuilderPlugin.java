@@ -3,8 +3,11 @@ package com.krisped;
 import com.google.inject.Provides;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.api.events.GameStateChanged;
 import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
+import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.game.ItemManager;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
@@ -13,7 +16,9 @@ import net.runelite.client.ui.NavigationButton;
 import net.runelite.client.util.ImageUtil;
 
 import javax.inject.Inject;
+import javax.swing.SwingUtilities;
 import java.awt.image.BufferedImage;
+import java.util.concurrent.ScheduledExecutorService;
 
 @Slf4j
 @PluginDescriptor(
@@ -29,6 +34,7 @@ public class LoadoutBuilderPlugin extends Plugin
     @Inject private ItemManager itemManager;
     @Inject private ClientThread clientThread;
     @Inject private LoadoutBuilderConfig config;
+    @Inject private ScheduledExecutorService executor;
 
     private NavigationButton navButton;
     private LoadoutBuilderPanel panel;
@@ -41,7 +47,9 @@ public class LoadoutBuilderPlugin extends Plugin
     protected void startUp()
     {
         log.info("Loadout Builder starting");
+        // The library is read in the background while the panel is built; the panel fills in when it is ready
         loadoutManager = new LoadoutManager(config, itemManager);
+        loadoutManager.load(executor);
         panel = new LoadoutBuilderPanel(itemManager, clientThread, client, loadoutManager, config);
 
         BufferedImage icon = ImageUtil.loadImageResource(getClass(), "defenceicon.png");
@@ -54,11 +62,21 @@ public class LoadoutBuilderPlugin extends Plugin
         clientToolbar.addNavigation(navButton);
     }
 
+    @Subscribe
+    public void onGameStateChanged(GameStateChanged e)
+    {
+        // Item compositions need a logged-in client; already cached ids are skipped on later logins
+        if (e.getGameState() != GameState.LOGGED_IN) return;
+        LoadoutBuilderPanel p = panel;
+        if (p != null) SwingUtilities.invokeLater(p::prefetchSavedLoadouts);
+    }
+
     @Override
     protected void shutDown()
     {
         log.info("Loadout Builder stopping");
         clientToolbar.removeNavigation(navButton);
+        if (panel != null) SwingUtilities.invokeLater(panel::shutDown);
         navButton = null;
         panel = null;
         loadoutManager = null;
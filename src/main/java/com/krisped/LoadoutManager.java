@@ -2,12 +2,15 @@ package com.krisped;
 
 import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.EquipmentInventorySlot;
 import net.runelite.client.game.ItemManager;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -20,7 +23,11 @@ import java.util.stream.Collectors;
  *   }
  * Legacy support:
  *  - .txt files in prior v4 (section headers) and earlier SERIAL formats are still imported once; on update they are rewritten as .json.
+ * Nothing is read in the constructor: {@link #load} reads the library on a background
+ * executor and completes {@link #ready()}; until then (or when it failed) {@link #getAll()}
+ * is empty and the mutators refuse to run, so a partial library never overwrites the files.
  */
+@Slf4j
 public class LoadoutManager
 {
     private static final String LEGACY_FILE = "loadouts.dat"; // old aggregated config backup
@@ -32,22 +39,57 @@ public class LoadoutManager
     private final File loadoutDir;
     private final ItemManager itemManager;
     private final Gson gson = new Gson();
+    private final CompletableFuture<LoadoutManager> ready = new CompletableFuture<>();
 
     public LoadoutManager(LoadoutBuilderConfig config, ItemManager itemManager)
     {
         this.config = config;
         this.itemManager = itemManager;
         this.baseDir = new File(System.getProperty("user.home"), ".kp");
-        if (!baseDir.exists()) baseDir.mkdirs();
         this.loadoutDir = new File(baseDir, DIR_NAME);
-        if (!loadoutDir.exists()) loadoutDir.mkdirs();
-        loadFromDisk();
     }
 
-    public List<Loadout> getAll() { return Collections.unmodifiableList(loadouts); }
+    /** Reads (and normalizes) the saved loadouts on {@code executor}; call once. */
+    public CompletableFuture<LoadoutManager> load(Executor executor)
+    {
+        executor.execute(() -> {
+            try
+            {
+                long t0 = System.nanoTime();
+                if (!baseDir.exists()) baseDir.mkdirs();
+                if (!loadoutDir.exists()) loadoutDir.mkdirs();
+                loadFromDisk();
+                log.debug("Loadouts loaded: {} in {} ms", loadouts.size(), (System.nanoTime() - t0) / 1_000_000);
+                ready.complete(this);
+            }
+            catch (Exception ex)
+            {
+                log.warn("Loading loadouts failed", ex);
+                ready.completeExceptionally(ex);
+            }
+        });
+        return ready;
+    }
+
+    /** Completes once the library has been read from disk. */
+    public CompletableFuture<LoadoutManager> ready() { return ready; }
+
+    public boolean isReady() { return ready.isDone(); }
+
+    /** True once the library was read successfully; only then may it be changed. */
+    public boolean isLoaded() { return ready.isDone() && !ready.isCompletedExceptionally(); }
+
+    public List<Loadout> getAll() { return isLoaded() ? Collections.unmodifiableList(loadouts) : Collections.emptyList(); }
+
+    /** Mutations never wait for the load; callers keep them disabled until {@link #isLoaded()}. */
+    private void checkLoaded()
+    {
+        if (!isLoaded()) throw new IllegalStateException("Saved loadouts are not loaded");
+    }
 
     public void add(Loadout l)
     {
+        checkLoaded();
         Loadout existing = findByName(l.getName());
         if (existing != null) loadouts.remove(existing);
         loadouts.add(l);
@@ -55,10 +97,15 @@ public class LoadoutManager
         mirrorToConfig();
     }
 
-    public void update() { persistAll(); }
+    public void update()
+    {
+        checkLoaded();
+        persistAll();
+    }
 
     public void remove(Loadout l)
     {
+        checkLoaded();
         loadouts.remove(l);
         deleteFileVariants(l.getName());
         mirrorToConfig();
@@ -66,6 +113,7 @@ public class LoadoutManager
 
     public void rename(Loadout l, String newName)
     {
+        checkLoaded();
         String old = l.getName();
         if (old.equals(newName) || findByName(newName) != null) return;
         l.setName(newName);
@@ -1,19 +1,14 @@
 package com.krisped;
 
 import net.runelite.client.game.ItemManager;
-import net.runelite.client.ui.ColorScheme;
+import net.runelite.client.util.AsyncBufferedImage;
 
 import javax.swing.*;
-import java.awt.Color;
 import java.awt.Cursor;
 import java.awt.Dimension;
-import java.awt.Font;
-import java.awt.FontMetrics;
 import java.awt.Graphics;
-import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.Point;
-import java.awt.RenderingHints;
 import java.awt.Toolkit;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
@@ -28,16 +23,9 @@ public class LoadoutSlot extends JComponent
     private static final boolean DEBUG_MENU = false;
 
     // Reduced from 52 -> 50 for slightly smaller slots
-    private static final int SLOT_SIZE = 50;
+    static final int SLOT_SIZE = 50;
     private static final Dimension SIZE = new Dimension(SLOT_SIZE, SLOT_SIZE);
 
-    private static final int AMOUNT_FONT_SIZE = 13;
-    private static final Font AMOUNT_FONT = new Font("SansSerif", Font.BOLD, AMOUNT_FONT_SIZE);
-    private static final int AMOUNT_INSET = 2;
-
-    // Subtle background behind quantity for readability
-    private static final boolean SHOW_QTY_BG = true;
-
     private final ItemManager itemManager;
     private final SlotActionHandler handler;
     private final int index;
@@ -56,11 +44,6 @@ public class LoadoutSlot extends JComponent
     private static LoadoutSlot dragSource = null;
     private static Cursor originalCursor = null;
 
-    private final Color baseBg = ColorScheme.DARKER_GRAY_COLOR;
-    private final Color hoverBg = baseBg.brighter();
-    private final Color borderColor = Color.DARK_GRAY;
-    private final Color hoverBorder = new Color(190, 190, 190);
-
     public interface SlotActionHandler
     {
         void onLeftClick(LoadoutSlot slot, boolean isEquipment, int index);
@@ -82,6 +65,17 @@ public class LoadoutSlot extends JComponent
     /* ================= Public API ================= */
 
     public void setItem(int id, int qty)
+    {
+        assignItem(id, qty);
+        if (itemId > 0 && handler != null)
+            handler.requestItemInfoOnClientThread(this, itemId);
+    }
+
+    /**
+     * Sets the item without requesting its name and icon; the caller resolves them,
+     * usually for many slots at once, and hands them over via {@link #setResolvedItemInfo}.
+     */
+    public void assignItem(int id, int qty)
     {
         itemId = id;
         quantity = Math.max(0, qty);
@@ -89,11 +83,7 @@ public class LoadoutSlot extends JComponent
         cachedIcon = null;
         resolvedName = null;
         baseTooltip = null;
-
-        if (itemId > 0 && handler != null)
-            handler.requestItemInfoOnClientThread(this, itemId);
-        else
-            setToolTipText(null);
+        setToolTipText(null);
         repaint();
     }
 
@@ -143,6 +133,15 @@ public class LoadoutSlot extends JComponent
         resolvedName = name;
         cachedIcon = icon;
         stackable = stackableFlag;
+        if (icon instanceof AsyncBufferedImage)
+        {
+            // The tile drawn from the blank image is stale once the pixels arrive
+            int id = itemId;
+            ((AsyncBufferedImage) icon).onLoaded(() -> SwingUtilities.invokeLater(() -> {
+                SlotTiles.invalidate(id);
+                repaint();
+            }));
+        }
 
         if (quantity <= 0)
             quantity = 1;
@@ -254,8 +253,22 @@ public class LoadoutSlot extends JComponent
         repaint();
     }
 
+    /**
+     * Drop target under the pointer. A point inside either of the panel's grids (equipment or
+     * inventory, whichever the drag started in) is resolved arithmetically by that grid; only
+     * a point outside both falls back to walking the component tree.
+     */
     private LoadoutSlot locateSlotUnder(MouseEvent e)
     {
+        LoadoutBuilderPanel panel = LoadoutBuilderPanel.findPanel(this);
+        if (panel != null)
+        {
+            for (SlotGrid grid : panel.visibleSlotGrids())
+            {
+                Point p = SwingUtilities.convertPoint(this, e.getPoint(), grid);
+                if (grid.contains(p)) return grid.slotAt(p.x, p.y); // null over gaps and captions
+            }
+        }
         Point screen = e.getLocationOnScreen();
         var root = SwingUtilities.getRoot(this);
         if (root == null) return null;
@@ -272,81 +285,17 @@ public class LoadoutSlot extends JComponent
     @Override public Dimension getMinimumSize()   { return SIZE; }
     @Override public Dimension getMaximumSize()   { return SIZE; }
 
-    @Override
-    protected void paintComponent(Graphics g)
-    {
-        Graphics2D g2 = (Graphics2D) g.create();
-        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
-                RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-
-        g2.setColor(hover ? hoverBg : baseBg);
-        g2.fillRect(0, 0, getWidth(), getHeight());
-
-        if (cachedIcon != null)
-        {
-            int iw = cachedIcon.getWidth();
-            int ih = cachedIcon.getHeight();
-            int x = (getWidth() - iw) / 2;
-            int y = (getHeight() - ih) / 2;
-            g2.drawImage(cachedIcon, x, y, null);
-        }
-
-        // Quantity top-left
-        if (itemId > 0 && quantity > 1)
-        {
-            String txt = formatQuantity(quantity);
-            Color qtyColor = chooseQuantityColor(quantity);
-            g2.setFont(AMOUNT_FONT);
-            FontMetrics fm = g2.getFontMetrics();
-            int textW = fm.stringWidth(txt);
-            int ascent = fm.getAscent();
-
-            int x = AMOUNT_INSET;               // left-aligned
-            int y = ascent + AMOUNT_INSET;
-
-            if (SHOW_QTY_BG)
-            {
-                int bgH = fm.getHeight();
-                int bgW = textW + 4;
-                g2.setColor(new Color(0,0,0,140));
-                g2.fillRoundRect(x - 2, y - ascent - 2, bgW, bgH, 6, 6);
-            }
-            else
-            {
-                g2.setColor(Color.BLACK);
-                for (int ox = -1; ox <= 1; ox++)
-                    for (int oy = -1; oy <= 1; oy++)
-                        if (!(ox == 0 && oy == 0))
-                            g2.drawString(txt, x + ox, y + oy);
-            }
-
-            g2.setColor(qtyColor);
-            g2.drawString(txt, x, y);
-        }
-
-        g2.setColor(hover ? hoverBorder : borderColor);
-        g2.drawRect(0, 0, getWidth()-1, getHeight()-1);
-
-        if (dragging && dragSource == this)
-        {
-            g2.setColor(new Color(255,255,255,40));
-            g2.fillRect(0,0,getWidth(),getHeight());
-        }
-        g2.dispose();
-    }
-
-    private String formatQuantity(int q)
+    /** The pre-rendered look of this slot in its current state. */
+    BufferedImage tile()
     {
-        if (q < 100_000)     return Integer.toString(q);
-        if (q < 10_000_000)  return (q / 1000) + "K";
-        return (q / 1_000_000) + "M";
+        return SlotTiles.tile(getWidth(), getHeight(), itemId, quantity, cachedIcon, hover, dragging && dragSource == this);
     }
 
-    private Color chooseQuantityColor(int q)
+    @Override
+    protected void paintComponent(Graphics g)
     {
-        if (q < 100_000)     return Color.WHITE;
-        if (q < 10_000_000)  return new Color(0, 255, 128);
-        return new Color(0, 255, 255);
+        if (getParent() instanceof SlotGrid) return; // the grid paints all of its tiles in one pass
+        g.drawImage(tile(), 0, 0, null);
     }
 
     /* ================= Context Menu ================= */
@@ -422,6 +371,14 @@ public class LoadoutSlot extends JComponent
             JMenuItem change = new JMenuItem("Change item...");
             change.addActionListener(e -> { if (handler != null) handler.onLeftClick(this, equipment, index); });
             menu.add(change);
+
+            JMenuItem whereUsed = new JMenuItem("Where used...");
+            whereUsed.addActionListener(e -> {
+                LoadoutBuilderPanel panel = LoadoutBuilderPanel.findPanel(this);
+                if (panel != null)
+                    panel.showWhereUsed(itemId);
+            });
+            menu.add(whereUsed);
         }
 
         menu.show(this, x, y);
@@ -0,0 +1,300 @@
+package com.krisped;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.EquipmentInventorySlot;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.game.ItemManager;
+import net.runelite.client.ui.ColorScheme;
+import net.runelite.client.util.AsyncBufferedImage;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import javax.swing.SwingUtilities;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Small picture of a preset: the equipment layout next to a miniature inventory.
+ * Thumbnails are requested by the preset list renderer, so only visible rows ask for
+ * one. Each is keyed by a fingerprint of the loadout's item ids and looked up in memory,
+ * then in ~/.kp/thumbs/&lt;fingerprint&gt;.png, and only rendered when neither has it:
+ * icons are fetched as a bulk client-thread job, drawing and disk I/O run on a
+ * background thread, and the list is repainted on the EDT when the picture is ready.
+ * The disk cache keeps the {@value #DISK_CAPACITY} most recently used pictures. Icons that
+ * have not loaded after {@value #ICON_TIMEOUT_MS} ms are left blank; such a picture is kept
+ * in memory only, so a later session draws it again.
+ */
+@Slf4j
+public class PresetThumbnails
+{
+    private static final int VERSION = 1; // bump when the drawing changes; old files are then ignored
+    private static final int CELL = 9;
+    private static final int GAP = 4;
+    private static final int EQUIP_W = 3 * CELL;
+    private static final int INV_X = EQUIP_W + GAP;
+    public static final int WIDTH = INV_X + 4 * CELL;
+    public static final int HEIGHT = 7 * CELL;
+    private static final int MEMORY_CAPACITY = 256;
+    private static final int DISK_CAPACITY = 512;
+    private static final long ICON_TIMEOUT_MS = 5000;
+
+    private static final Color CELL_BG = ColorScheme.DARKER_GRAY_COLOR;
+    private static final EquipmentInventorySlot[][] EQUIP_LAYOUT = {
+            {null, EquipmentInventorySlot.HEAD, null},
+            {EquipmentInventorySlot.CAPE, EquipmentInventorySlot.AMULET, EquipmentInventorySlot.AMMO},
+            {EquipmentInventorySlot.WEAPON, EquipmentInventorySlot.BODY, EquipmentInventorySlot.SHIELD},
+            {null, EquipmentInventorySlot.LEGS, null},
+            {EquipmentInventorySlot.GLOVES, EquipmentInventorySlot.BOOTS, EquipmentInventorySlot.RING}
+    };
+
+    private final ItemManager itemManager;
+    private final ClientThread clientThread;
+    private final Runnable onReady; // EDT; repaints the list
+    private final File dir = new File(new File(System.getProperty("user.home"), ".kp"), "thumbs");
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "PresetThumbnails");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // EDT only
+    private final Map<String, ImageIcon> memory = new LinkedHashMap<String, ImageIcon>(64, 0.75f, true)
+    {
+        @Override protected boolean removeEldestEntry(Map.Entry<String, ImageIcon> eldest) { return size() > MEMORY_CAPACITY; }
+    };
+    private final Set<String> pending = new HashSet<>();
+
+    public PresetThumbnails(ItemManager itemManager, ClientThread clientThread, Runnable onReady)
+    {
+        this.itemManager = itemManager;
+        this.clientThread = clientThread;
+        this.onReady = onReady;
+    }
+
+    /** Thumbnail for {@code l}, or null while it is being loaded or rendered (EDT only). */
+    public ImageIcon get(Loadout l)
+    {
+        if (worker.isShutdown()) return null;
+        String key = fingerprint(l);
+        ImageIcon icon = memory.get(key);
+        if (icon != null || !pending.add(key)) return icon;
+
+        int[] eq = l.getEquipmentIds().clone();
+        int[] inv = l.getInventoryIds().clone();
+        try
+        {
+            worker.execute(() -> {
+                try
+                {
+                    BufferedImage img = readCached(key);
+                    if (img != null) deliver(key, img);
+                    else fetchIcons(key, eq, inv);
+                }
+                catch (Exception ex) { failed(key, ex); }
+            });
+        }
+        catch (RejectedExecutionException ex)
+        {
+            pending.remove(key);
+        }
+        return null;
+    }
+
+    public void shutDown()
+    {
+        worker.shutdownNow();
+        SwingUtilities.invokeLater(pending::clear); // queued requests will never run
+    }
+
+    /* ================= Pipeline ================= */
+
+    /**
+     * Client thread: fetch every icon, then render once all pixels have arrived, or after
+     * {@link #ICON_TIMEOUT_MS} with the icons that did (an onLoaded that never fires would
+     * otherwise keep the row pending for good).
+     */
+    private void fetchIcons(String key, int[] eq, int[] inv)
+    {
+        ClientTaskScheduler.submit(clientThread, ClientTaskScheduler.Priority.BULK, () -> {
+            try
+            {
+                Map<Integer, BufferedImage> icons = new HashMap<>();
+                for (int[] ids : new int[][] { eq, inv })
+                    for (int id : ids)
+                    {
+                        if (id <= 0 || icons.containsKey(id)) continue;
+                        try { icons.put(id, itemManager.getImage(id)); }
+                        catch (Exception ignored) {}
+                    }
+                AtomicInteger waiting = new AtomicInteger(icons.size() + 1);
+                AtomicBoolean rendered = new AtomicBoolean();
+                Set<Integer> loaded = ConcurrentHashMap.newKeySet();
+                Runnable complete = () -> {
+                    if (waiting.decrementAndGet() == 0 && rendered.compareAndSet(false, true))
+                        renderLater(key, eq, inv, icons);
+                };
+                for (Map.Entry<Integer, BufferedImage> e : icons.entrySet())
+                {
+                    int id = e.getKey();
+                    Runnable arrived = () -> {
+                        loaded.add(id);
+                        complete.run();
+                    };
+                    if (e.getValue() instanceof AsyncBufferedImage) ((AsyncBufferedImage) e.getValue()).onLoaded(arrived);
+                    else arrived.run();
+                }
+                complete.run(); // covers an empty loadout
+                if (!rendered.get()) scheduleTimeout(key, eq, inv, icons, loaded, rendered);
+            }
+            catch (Exception ex) { failed(key, ex); }
+        });
+    }
+
+    /** Renders with the icons loaded so far if the rest have not arrived in time; not stored on disk. */
+    private void scheduleTimeout(String key, int[] eq, int[] inv, Map<Integer, BufferedImage> icons,
+                                 Set<Integer> loaded, AtomicBoolean rendered)
+    {
+        try
+        {
+            worker.schedule(() -> {
+                if (!rendered.compareAndSet(false, true)) return;
+                log.debug("Thumbnail {}: {} of {} icons loaded in time", key, loaded.size(), icons.size());
+                Map<Integer, BufferedImage> partial = new HashMap<>(icons);
+                partial.keySet().retainAll(loaded);
+                try { render(key, eq, inv, partial, false); }
+                catch (Exception ex) { failed(key, ex); }
+            }, ICON_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        }
+        catch (RejectedExecutionException ex)
+        {
+            failed(key, ex); // shut down in the meantime
+        }
+    }
+
+    private void renderLater(String key, int[] eq, int[] inv, Map<Integer, BufferedImage> icons)
+    {
+        try
+        {
+            worker.execute(() -> {
+                try { render(key, eq, inv, icons, true); }
+                catch (Exception ex) { failed(key, ex); }
+            });
+        }
+        catch (RejectedExecutionException ex)
+        {
+            failed(key, ex); // shut down in the meantime
+        }
+    }
+
+    /** Worker thread: draw, store on disk unless {@code persist} is false, hand over to the EDT. */
+    private void render(String key, int[] eq, int[] inv, Map<Integer, BufferedImage> icons, boolean persist)
+    {
+        BufferedImage img = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        for (int r = 0; r < EQUIP_LAYOUT.length; r++)
+            for (int c = 0; c < EQUIP_LAYOUT[r].length; c++)
+            {
+                EquipmentInventorySlot slot = EQUIP_LAYOUT[r][c];
+                if (slot == null) continue;
+                int idx = slot.ordinal();
+                drawCell(g, c * CELL, r * CELL, idx < eq.length ? icons.get(eq[idx]) : null);
+            }
+        for (int i = 0; i < 28; i++)
+            drawCell(g, INV_X + (i % 4) * CELL, (i / 4) * CELL, i < inv.length ? icons.get(inv[i]) : null);
+        g.dispose();
+
+        if (persist)
+        {
+            try
+            {
+                if (!dir.exists()) dir.mkdirs();
+                ImageIO.write(img, "png", new File(dir, key + ".png"));
+                trimDisk();
+            }
+            catch (Exception ex)
+            {
+                log.debug("Thumbnail not cached: {}", ex.toString());
+            }
+        }
+        deliver(key, img);
+    }
+
+    private static void drawCell(Graphics2D g, int x, int y, BufferedImage icon)
+    {
+        g.setColor(CELL_BG);
+        g.fillRect(x, y, CELL - 1, CELL - 1);
+        if (icon != null) g.drawImage(icon, x, y, CELL - 1, CELL - 1, null);
+    }
+
+    private BufferedImage readCached(String key)
+    {
+        File f = new File(dir, key + ".png");
+        if (!f.isFile()) return null;
+        try
+        {
+            BufferedImage img = ImageIO.read(f);
+            f.setLastModified(System.currentTimeMillis()); // recently used, kept by trimDisk
+            return img;
+        }
+        catch (Exception ex) { return null; }
+    }
+
+    /** Worker thread: deletes the least recently used pictures beyond {@link #DISK_CAPACITY}. */
+    private void trimDisk()
+    {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".png"));
+        if (files == null || files.length <= DISK_CAPACITY) return;
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < files.length - DISK_CAPACITY; i++)
+            if (!files[i].delete()) log.debug("Thumbnail not deleted: {}", files[i]);
+    }
+
+    private void deliver(String key, BufferedImage img)
+    {
+        ImageIcon icon = new ImageIcon(img);
+        SwingUtilities.invokeLater(() -> {
+            pending.remove(key);
+            memory.put(key, icon);
+            onReady.run();
+        });
+    }
+
+    /** Any thread: forget the request, so the next paint of that row asks again. */
+    private void failed(String key, Exception ex)
+    {
+        log.debug("Thumbnail {} failed: {}", key, ex.toString());
+        SwingUtilities.invokeLater(() -> pending.remove(key));
+    }
+
+    /** 64-bit FNV-1a over the item ids (quantities are not drawn), plus the drawing version. */
+    static String fingerprint(Loadout l)
+    {
+        long h = 0xcbf29ce484222325L;
+        h = (h ^ VERSION) * 0x100000001b3L;
+        for (int[] ids : new int[][] { l.getEquipmentIds(), l.getInventoryIds() })
+        {
+            h = (h ^ ids.length) * 0x100000001b3L;
+            for (int id : ids) h = (h ^ Math.max(-1, id)) * 0x100000001b3L;
+        }
+        return Long.toHexString(h);
+    }
+}
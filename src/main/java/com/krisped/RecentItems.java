@@ -0,0 +1,170 @@
+package com.krisped;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Recently picked and favorite item ids for the item search dialog.
+ * Persisted as a small binary file: ~/.kp/recent-items.bin
+ *   byte version, short favCount, int[favCount], short recentCount, int[recentCount]
+ * Read off the EDT by {@link #load()} when the search dialog is created; every change is
+ * written by a single background writer, in order. Changes made before the file was read
+ * are kept in front of what it held.
+ */
+public class RecentItems
+{
+    private static final String FILE_NAME = "recent-items.bin";
+    private static final int VERSION = 1;
+    private static final int MAX_RECENT = 24;
+    private static final int MAX_FAVORITES = 64;
+
+    /** Reads and writes the file in submission order, off the EDT. */
+    private static final ExecutorService IO = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "RecentItems");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final File file;
+    private final List<Integer> favorites = new ArrayList<>();
+    private final List<Integer> recents = new ArrayList<>(); // most recent first
+    private CompletableFuture<RecentItems> loading;
+
+    public RecentItems()
+    {
+        this.file = new File(new File(System.getProperty("user.home"), ".kp"), FILE_NAME);
+    }
+
+    /** Starts reading the file in the background (once); completes when the lists hold its contents. */
+    public synchronized CompletableFuture<RecentItems> load()
+    {
+        if (loading == null) loading = CompletableFuture.supplyAsync(() -> { read(); return this; }, IO);
+        return loading;
+    }
+
+    public synchronized boolean isLoaded()
+    {
+        return loading != null && loading.isDone();
+    }
+
+    public synchronized List<Integer> favorites()
+    {
+        return Collections.unmodifiableList(new ArrayList<>(favorites));
+    }
+
+    public synchronized List<Integer> recents()
+    {
+        return Collections.unmodifiableList(new ArrayList<>(recents));
+    }
+
+    public synchronized boolean isFavorite(int itemId)
+    {
+        return favorites.contains(itemId);
+    }
+
+    /** Moves the id to the front of the recent list. */
+    public synchronized void recordUse(int itemId)
+    {
+        if (itemId <= 0) return;
+        recents.remove(Integer.valueOf(itemId));
+        recents.add(0, itemId);
+        while (recents.size() > MAX_RECENT) recents.remove(recents.size() - 1);
+        save();
+    }
+
+    /** Returns true if the item is a favorite afterwards. */
+    public synchronized boolean toggleFavorite(int itemId)
+    {
+        if (itemId <= 0) return false;
+        boolean nowFavorite;
+        if (favorites.remove(Integer.valueOf(itemId))) nowFavorite = false;
+        else
+        {
+            if (favorites.size() >= MAX_FAVORITES) favorites.remove(favorites.size() - 1);
+            favorites.add(0, itemId);
+            nowFavorite = true;
+        }
+        save();
+        return nowFavorite;
+    }
+
+    /* ================= Persistence ================= */
+
+    /** IO thread: merges the file behind any changes made before it was read. */
+    private void read()
+    {
+        if (!file.exists()) return;
+        List<Integer> favs = new ArrayList<>();
+        List<Integer> recent = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file))))
+        {
+            if (in.readByte() != VERSION) return;
+            readInto(in, favs, MAX_FAVORITES);
+            readInto(in, recent, MAX_RECENT);
+        }
+        catch (IOException ignored) {}
+        synchronized (this)
+        {
+            merge(favorites, favs, MAX_FAVORITES);
+            merge(recents, recent, MAX_RECENT);
+        }
+    }
+
+    private static void merge(List<Integer> target, List<Integer> stored, int max)
+    {
+        for (int id : stored)
+            if (target.size() < max && !target.contains(id)) target.add(id);
+    }
+
+    private static void readInto(DataInputStream in, List<Integer> target, int max) throws IOException
+    {
+        int n = in.readUnsignedShort();
+        for (int i = 0; i < n; i++)
+        {
+            int id = in.readInt();
+            if (id > 0 && target.size() < max && !target.contains(id)) target.add(id);
+        }
+    }
+
+    /** Queues a write; it runs after the read, so a change made before loading never drops the file's ids. */
+    private void save()
+    {
+        load();
+        IO.execute(this::write);
+    }
+
+    /** IO thread: writes the lists as they are when the write runs. */
+    private void write()
+    {
+        List<Integer> favs;
+        List<Integer> recent;
+        synchronized (this)
+        {
+            favs = new ArrayList<>(favorites);
+            recent = new ArrayList<>(recents);
+        }
+        File dir = file.getParentFile();
+        if (!dir.exists()) dir.mkdirs();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file))))
+        {
+            out.writeByte(VERSION);
+            out.writeShort(favs.size());
+            for (int id : favs) out.writeInt(id);
+            out.writeShort(recent.size());
+            for (int id : recent) out.writeInt(id);
+        }
+        catch (IOException ignored) {}
+    }
+}
@@ -0,0 +1,123 @@
+package com.krisped;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Session-wide LRU of ranked item search results.
+ * Keyed by catalog revision, active filter mask and normalized query; values are
+ * ranked catalog rows (plus their relevance tiers), never {@code Result} objects.
+ */
+public class SearchResultCache
+{
+    private static final int CAPACITY = 64;
+
+    private static final Map<String, Ranking> CACHE = new LinkedHashMap<String, Ranking>(CAPACITY, 0.75f, true)
+    {
+        @Override protected boolean removeEldestEntry(Map.Entry<String, Ranking> eldest) { return size() > CAPACITY; }
+    };
+    private static long hits;
+    private static long lookups;
+
+    private SearchResultCache() {}
+
+    /** Ranked rows of one query, best first. */
+    public static final class Ranking
+    {
+        final int[] rows;
+        final byte[] tiers; // relevance tier per ranked row
+        final int total;    // matches before the result cap
+        private int[] byName; // display orders, built on first use
+        private int[] byId;
+
+        Ranking(int[] rows, byte[] tiers, int total)
+        {
+            this.rows = rows;
+            this.tiers = tiers;
+            this.total = total;
+        }
+
+        /**
+         * Indexes into {@link #rows} in display order: relevance tier first, then name or id.
+         * The ascending permutations are built once per ranking from packed primitive keys;
+         * descending is the same permutation read backwards within each tier.
+         */
+        synchronized int[] order(ItemCatalog catalog, boolean byNameOrder, boolean descending)
+        {
+            int[] asc = byNameOrder ? byName : byId;
+            if (asc == null)
+            {
+                long[] keys = new long[rows.length]; // tier << 48 | rank << 16 | index
+                for (int i = 0; i < rows.length; i++)
+                {
+                    long rank = byNameOrder ? catalog.nameRank(rows[i]) : rows[i];
+                    keys[i] = ((long) tiers[i] << 48) | (rank << 16) | i;
+                }
+                Arrays.sort(keys);
+                asc = new int[keys.length];
+                for (int i = 0; i < keys.length; i++) asc[i] = (int) (keys[i] & 0xFFFF);
+                if (byNameOrder) byName = asc; else byId = asc;
+            }
+            if (!descending) return asc;
+
+            int[] out = new int[asc.length];
+            for (int start = 0; start < asc.length; )
+            {
+                int end = start;
+                while (end < asc.length && tiers[asc[end]] == tiers[asc[start]]) end++;
+                for (int i = start; i < end; i++) out[i] = asc[end - 1 - (i - start)];
+                start = end;
+            }
+            return out;
+        }
+    }
+
+    public static synchronized Ranking get(int revision, int filterMask, String query)
+    {
+        lookups++;
+        Ranking r = CACHE.get(key(revision, filterMask, query));
+        if (r != null) hits++;
+        return r;
+    }
+
+    public static synchronized void put(int revision, int filterMask, String query, Ranking ranking)
+    {
+        CACHE.put(key(revision, filterMask, query), ranking);
+    }
+
+    /** Fraction of lookups served from the cache this session (0 when nothing was looked up). */
+    public static synchronized double hitRate()
+    {
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /** Query as cached: lower-case, '*' wildcards dropped, tokens joined by one space. */
+    public static String normalizeQuery(String raw)
+    {
+        return Arrays.stream(raw.toLowerCase(Locale.ROOT).split("\\s+"))
+                .map(t -> t.replace("*", "").trim())
+                .filter(t -> !t.isEmpty())
+                .collect(Collectors.joining(" "));
+    }
+
+    /** Empties the cache and resets the statistics; for tests. */
+    static synchronized void clear()
+    {
+        CACHE.clear();
+        hits = lookups = 0;
+    }
+
+    public static synchronized String describe()
+    {
+        return "Result cache: " + hits + "/" + lookups + " hits (" + Math.round(hitRate() * 100) + "%), "
+                + CACHE.size() + "/" + CAPACITY + " entries";
+    }
+
+    private static String key(int revision, int filterMask, String query)
+    {
+        return revision + "|" + filterMask + "|" + normalizeQuery(query);
+    }
+}
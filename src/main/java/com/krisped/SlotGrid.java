@@ -0,0 +1,126 @@
+package com.krisped;
+
+import javax.swing.JComponent;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+
+/**
+ * Fixed grid of {@link LoadoutSlot}s laid out arithmetically: no per-cell holder panels or
+ * label components. The grid paints every slot tile (and the optional caption under it) in
+ * one pass; the slots stay as transparent children only to receive their own mouse events,
+ * so the {@link LoadoutSlot.SlotActionHandler} contract is unchanged. {@link #slotAt} maps a
+ * point to a slot without walking the component tree.
+ */
+class SlotGrid extends JComponent
+{
+    private static final Color CAPTION_COLOR = new Color(220, 220, 220);
+
+    private final int rows;
+    private final int cols;
+    private final int hgap;
+    private final int vgap;
+    private final Font captionFont;
+    private final LoadoutSlot[] cells;
+    private final String[] captions;
+
+    private int cellW = LoadoutSlot.SLOT_SIZE;
+    private int cellH = LoadoutSlot.SLOT_SIZE;
+    private int captionH;
+
+    /** {@code captionFont} may be null when no cell has a caption. */
+    SlotGrid(int rows, int cols, int hgap, int vgap, Font captionFont)
+    {
+        this.rows = rows;
+        this.cols = cols;
+        this.hgap = hgap;
+        this.vgap = vgap;
+        this.captionFont = captionFont;
+        this.cells = new LoadoutSlot[rows * cols];
+        this.captions = new String[rows * cols];
+        setLayout(null);
+        setOpaque(false);
+        if (captionFont != null)
+        {
+            captionH = getFontMetrics(captionFont).getHeight();
+            cellH += captionH;
+        }
+    }
+
+    /** Places {@code slot} at (row, col) with an optional caption drawn below it. */
+    void put(int row, int col, LoadoutSlot slot, String caption)
+    {
+        int i = row * cols + col;
+        cells[i] = slot;
+        captions[i] = caption;
+        if (caption != null && captionFont != null)
+            cellW = Math.max(cellW, getFontMetrics(captionFont).stringWidth(caption));
+        slot.setOpaque(false); // repaints go through the grid, which draws the tile
+        add(slot);
+        for (int c = 0; c < cells.length; c++)
+            if (cells[c] != null) cells[c].setBounds(slotBounds(c));
+    }
+
+    /** Slot under (x, y) in grid coordinates, or null for gaps, captions and empty cells. */
+    LoadoutSlot slotAt(int x, int y)
+    {
+        if (x < 0 || y < 0) return null;
+        int col = x / (cellW + hgap);
+        int row = y / (cellH + vgap);
+        if (col >= cols || row >= rows) return null;
+        int i = row * cols + col;
+        if (cells[i] == null) return null;
+        Rectangle r = slotBounds(i);
+        return r.contains(x, y) ? cells[i] : null;
+    }
+
+    private Rectangle slotBounds(int i)
+    {
+        int x = (i % cols) * (cellW + hgap) + (cellW - LoadoutSlot.SLOT_SIZE) / 2;
+        int y = (i / cols) * (cellH + vgap);
+        return new Rectangle(x, y, LoadoutSlot.SLOT_SIZE, LoadoutSlot.SLOT_SIZE);
+    }
+
+    @Override
+    public Dimension getPreferredSize()
+    {
+        return new Dimension(cols * cellW + (cols - 1) * hgap, rows * cellH + (rows - 1) * vgap);
+    }
+
+    @Override public Dimension getMinimumSize() { return getPreferredSize(); }
+    @Override public Dimension getMaximumSize() { return getPreferredSize(); }
+
+    @Override
+    protected void paintComponent(Graphics g)
+    {
+        Rectangle clip = g.getClipBounds();
+        Graphics2D g2 = (Graphics2D) g;
+        if (captionFont != null)
+        {
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setFont(captionFont);
+            g2.setColor(CAPTION_COLOR);
+        }
+        FontMetrics fm = captionFont != null ? g2.getFontMetrics() : null;
+        for (int i = 0; i < cells.length; i++)
+        {
+            LoadoutSlot s = cells[i];
+            if (s == null) continue;
+            Rectangle r = slotBounds(i);
+            if (clip == null || clip.intersects(r))
+                g2.drawImage(s.tile(), r.x, r.y, null);
+            if (captions[i] != null && fm != null)
+            {
+                int cx = (i % cols) * (cellW + hgap);
+                int ty = r.y + r.height;
+                if (clip == null || clip.intersects(cx, ty, cellW, captionH))
+                    g2.drawString(captions[i], cx + (cellW - fm.stringWidth(captions[i])) / 2, ty + fm.getAscent());
+            }
+        }
+    }
+}
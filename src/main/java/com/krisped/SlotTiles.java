@@ -0,0 +1,160 @@
+package com.krisped;
+
+import net.runelite.client.ui.ColorScheme;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pre-composited slot tiles (background, icon, quantity label, border, drag tint),
+ * shared by every slot. A tile is keyed by what it shows, so a repaint is one
+ * {@code drawImage}; tiles of an item are dropped when its icon finishes loading.
+ */
+final class SlotTiles
+{
+    private static final int CAPACITY = 256;
+
+    private static final Font AMOUNT_FONT = new Font("SansSerif", Font.BOLD, 13);
+    private static final int AMOUNT_INSET = 2;
+    // Subtle background behind quantity for readability
+    private static final boolean SHOW_QTY_BG = true;
+
+    private static final Color BASE_BG = ColorScheme.DARKER_GRAY_COLOR;
+    private static final Color HOVER_BG = BASE_BG.brighter();
+    private static final Color BORDER = Color.DARK_GRAY;
+    private static final Color HOVER_BORDER = new Color(190, 190, 190);
+    private static final Color QTY_BG = new Color(0, 0, 0, 140);
+    private static final Color QTY_K = new Color(0, 255, 128);
+    private static final Color QTY_M = new Color(0, 255, 255);
+    private static final Color DRAG_TINT = new Color(255, 255, 255, 40);
+
+    private static final Map<Key, BufferedImage> CACHE = new LinkedHashMap<Key, BufferedImage>(CAPACITY, 0.75f, true)
+    {
+        @Override protected boolean removeEldestEntry(Map.Entry<Key, BufferedImage> eldest) { return size() > CAPACITY; }
+    };
+
+    private SlotTiles() {}
+
+    /** EDT only. {@code icon} may be null while the item info is still being resolved. */
+    static BufferedImage tile(int w, int h, int itemId, int quantity, BufferedImage icon, boolean hover, boolean drag)
+    {
+        String qty = itemId > 0 && quantity > 1 ? formatQuantity(quantity) : null;
+        Key key = new Key(w, h, itemId, qty, icon, hover, drag);
+        BufferedImage tile = CACHE.get(key);
+        if (tile == null)
+        {
+            tile = render(w, h, quantity, qty, icon, hover, drag);
+            CACHE.put(key, tile);
+        }
+        return tile;
+    }
+
+    /** Drops every tile of {@code itemId}, e.g. once its icon pixels have arrived. */
+    static void invalidate(int itemId)
+    {
+        for (Iterator<Key> it = CACHE.keySet().iterator(); it.hasNext(); )
+            if (it.next().itemId == itemId) it.remove();
+    }
+
+    private static BufferedImage render(int w, int h, int quantity, String qty, BufferedImage icon, boolean hover, boolean drag)
+    {
+        BufferedImage tile = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = tile.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        g2.setColor(hover ? HOVER_BG : BASE_BG);
+        g2.fillRect(0, 0, w, h);
+
+        if (icon != null)
+            g2.drawImage(icon, (w - icon.getWidth()) / 2, (h - icon.getHeight()) / 2, null);
+
+        // Quantity top-left
+        if (qty != null)
+        {
+            g2.setFont(AMOUNT_FONT);
+            FontMetrics fm = g2.getFontMetrics();
+            int ascent = fm.getAscent();
+            int x = AMOUNT_INSET;
+            int y = ascent + AMOUNT_INSET;
+
+            if (SHOW_QTY_BG)
+            {
+                g2.setColor(QTY_BG);
+                g2.fillRoundRect(x - 2, y - ascent - 2, fm.stringWidth(qty) + 4, fm.getHeight(), 6, 6);
+            }
+            else
+            {
+                g2.setColor(Color.BLACK);
+                for (int ox = -1; ox <= 1; ox++)
+                    for (int oy = -1; oy <= 1; oy++)
+                        if (!(ox == 0 && oy == 0))
+                            g2.drawString(qty, x + ox, y + oy);
+            }
+            g2.setColor(quantity < 100_000 ? Color.WHITE : quantity < 10_000_000 ? QTY_K : QTY_M);
+            g2.drawString(qty, x, y);
+        }
+
+        g2.setColor(hover ? HOVER_BORDER : BORDER);
+        g2.drawRect(0, 0, w - 1, h - 1);
+
+        if (drag)
+        {
+            g2.setColor(DRAG_TINT);
+            g2.fillRect(0, 0, w, h);
+        }
+        g2.dispose();
+        return tile;
+    }
+
+    static String formatQuantity(int q)
+    {
+        if (q < 100_000)     return Integer.toString(q);
+        if (q < 10_000_000)  return (q / 1000) + "K";
+        return (q / 1_000_000) + "M";
+    }
+
+    /** Icon compared by identity: a different image object is a different tile. */
+    private static final class Key
+    {
+        final int w, h, itemId;
+        final String qty;
+        final BufferedImage icon;
+        final boolean hover, drag;
+
+        Key(int w, int h, int itemId, String qty, BufferedImage icon, boolean hover, boolean drag)
+        {
+            this.w = w;
+            this.h = h;
+            this.itemId = itemId;
+            this.qty = qty;
+            this.icon = icon;
+            this.hover = hover;
+            this.drag = drag;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return w == k.w && h == k.h && itemId == k.itemId && icon == k.icon && hover == k.hover && drag == k.drag
+                    && (qty == null ? k.qty == null : qty.equals(k.qty));
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int r = itemId * 31 + (qty == null ? 0 : qty.hashCode());
+            r = r * 31 + System.identityHashCode(icon);
+            r = r * 31 + (w << 8 | h);
+            return (r << 2) | (hover ? 2 : 0) | (drag ? 1 : 0);
+        }
+    }
+}
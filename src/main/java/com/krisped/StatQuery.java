@@ -0,0 +1,151 @@
+package com.krisped;
+
+import net.runelite.api.EquipmentInventorySlot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Equipment-stat clauses of an item search, e.g. {@code slot:head str>=3 prayer>0}.
+ * Query tokens that are not clauses are left over as name tokens. Clauses are
+ * compiled to (column, operator, constant) and evaluated as flat loops over
+ * {@link ItemStatColumns}, producing a bitset over catalog rows.
+ */
+public class StatQuery
+{
+    private static final Pattern STAT_CLAUSE = Pattern.compile("([a-z]+)(>=|<=|!=|==|=|>|<)(-?\\d+(?:\\.\\d+)?)");
+    private static final String SLOT_PREFIX = "slot:";
+    private static final int MAX_VALUE = 1_000_000; // keeps col - value in the select loops from overflowing
+
+    private static final Map<String, ItemStatColumns.Stat> STATS = new HashMap<>();
+    private static final Map<String, Integer> SLOTS = new HashMap<>();
+    static
+    {
+        for (ItemStatColumns.Stat s : ItemStatColumns.Stat.values()) STATS.put(s.key, s);
+        STATS.put("pray", ItemStatColumns.Stat.PRAYER);
+        STATS.put("speed", ItemStatColumns.Stat.ASPEED);
+        STATS.put("mstr", ItemStatColumns.Stat.MDMG);
+
+        for (EquipmentInventorySlot s : EquipmentInventorySlot.values())
+            SLOTS.put(s.name().toLowerCase(Locale.ROOT), s.getSlotIdx());
+        SLOTS.put("helm", EquipmentInventorySlot.HEAD.getSlotIdx());
+        SLOTS.put("neck", EquipmentInventorySlot.AMULET.getSlotIdx());
+        SLOTS.put("chest", EquipmentInventorySlot.BODY.getSlotIdx());
+        SLOTS.put("hands", EquipmentInventorySlot.GLOVES.getSlotIdx());
+        SLOTS.put("feet", EquipmentInventorySlot.BOOTS.getSlotIdx());
+        SLOTS.put("offhand", EquipmentInventorySlot.SHIELD.getSlotIdx());
+    }
+
+    private enum Op { GE, LE, GT, LT, EQ, NE }
+
+    private static final class Clause
+    {
+        final ItemStatColumns.Stat stat; // null for a slot clause
+        final Op op;
+        final int value;
+
+        Clause(ItemStatColumns.Stat stat, Op op, int value)
+        {
+            this.stat = stat;
+            this.op = op;
+            this.value = value;
+        }
+    }
+
+    private final List<Clause> clauses;
+    private final String[] nameTokens;
+
+    private StatQuery(List<Clause> clauses, String[] nameTokens)
+    {
+        this.clauses = clauses;
+        this.nameTokens = nameTokens;
+    }
+
+    /**
+     * Splits a normalized (lower-case, space separated) query into stat clauses and name tokens.
+     * A token in clause syntax whose slot or stat is unknown (e.g. {@code a>5}) is a name token,
+     * so a typo narrows the name search instead of failing it.
+     */
+    public static StatQuery parse(String query)
+    {
+        List<Clause> clauses = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (String t : query.split(" "))
+        {
+            if (t.isEmpty()) continue;
+            if (t.startsWith(SLOT_PREFIX))
+            {
+                Integer slot = SLOTS.get(t.substring(SLOT_PREFIX.length()));
+                if (slot != null) clauses.add(new Clause(null, Op.EQ, slot));
+                else names.add(t);
+                continue;
+            }
+            Matcher m = STAT_CLAUSE.matcher(t);
+            ItemStatColumns.Stat stat = m.matches() ? STATS.get(m.group(1)) : null;
+            if (stat == null)
+            {
+                names.add(t);
+                continue;
+            }
+            long scaled = Math.round(Double.parseDouble(m.group(3)) * stat.scale);
+            int value = (int) Math.max(-MAX_VALUE, Math.min(MAX_VALUE, scaled));
+            clauses.add(new Clause(stat, op(m.group(2)), value));
+        }
+        return new StatQuery(clauses, names.toArray(new String[0]));
+    }
+
+    private static Op op(String s)
+    {
+        switch (s)
+        {
+            case ">=": return Op.GE;
+            case "<=": return Op.LE;
+            case ">":  return Op.GT;
+            case "<":  return Op.LT;
+            case "!=": return Op.NE;
+            default:   return Op.EQ;
+        }
+    }
+
+    public boolean hasClauses() { return !clauses.isEmpty(); }
+
+    public String[] nameTokens() { return nameTokens; }
+
+    /** Bitset of equipable rows that satisfy every clause. */
+    public long[] evaluate(ItemStatColumns columns)
+    {
+        int n = columns.size;
+        long[] out = new long[(n + 63) >>> 6];
+        // Every query is implicitly restricted to equipable items
+        select(columns.slot, Op.GE, 0, out, n);
+        long[] scratch = new long[out.length];
+        for (Clause c : clauses)
+        {
+            Arrays.fill(scratch, 0L);
+            select(c.stat == null ? columns.slot : columns.column(c.stat), c.op, c.value, scratch, n);
+            ItemSearchEngine.and(out, scratch);
+        }
+        return out;
+    }
+
+    /** Sets bit {@code row} of {@code out} where {@code col[row] op v}; one branch-free loop per operator. */
+    private static void select(int[] col, Op op, int v, long[] out, int n)
+    {
+        switch (op)
+        {
+            case GE: for (int i = 0; i < n; i++) out[i >>> 6] |= (long) ((col[i] - v) >>> 31 ^ 1) << i; break;
+            case GT: for (int i = 0; i < n; i++) out[i >>> 6] |= (long) ((v - col[i]) >>> 31) << i; break;
+            case LE: for (int i = 0; i < n; i++) out[i >>> 6] |= (long) ((v - col[i]) >>> 31 ^ 1) << i; break;
+            case LT: for (int i = 0; i < n; i++) out[i >>> 6] |= (long) ((col[i] - v) >>> 31) << i; break;
+            case NE: for (int i = 0; i < n; i++) out[i >>> 6] |= (col[i] != v ? 1L : 0L) << i; break;
+            case EQ:
+            default: for (int i = 0; i < n; i++) out[i >>> 6] |= (col[i] == v ? 1L : 0L) << i; break;
+        }
+    }
+}
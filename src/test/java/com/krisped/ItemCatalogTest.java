@@ -0,0 +1,62 @@
+package com.krisped;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ItemCatalogTest
+{
+    private static final ItemCatalog CATALOG = ItemCatalog.of(
+            new int[]{1, 2, 3, 4, 5, 6},
+            new String[]{"Rune axe", "rune", "Dragon axe", "Runite bar", "Rune arrow", "Adamant axe"},
+            new int[6]);
+
+    @Test
+    public void rowsWithPrefixAreInNameOrder()
+    {
+        assertArrayEquals(new int[]{1, 4, 0}, CATALOG.rowsWithPrefix("rune"));
+        assertArrayEquals(new int[]{1, 4, 0, 3}, CATALOG.rowsWithPrefix("run"));
+        assertArrayEquals(new int[]{4, 0}, CATALOG.rowsWithPrefix("rune a"));
+        assertArrayEquals(new int[]{2}, CATALOG.rowsWithPrefix("dragon axe"));
+        assertArrayEquals(new int[0], CATALOG.rowsWithPrefix("zamorak"));
+        assertArrayEquals(new int[0], CATALOG.rowsWithPrefix("dragon axes"));
+        assertEquals(6, CATALOG.rowsWithPrefix("").length);
+    }
+
+    /** The search dialog shows these rows before the scan; they must be exactly its two best tiers. */
+    @Test
+    public void rowsWithPrefixAreTheExactAndPrefixTiersOfTheFullScan()
+    {
+        String[] words = {"rune", "dragon", "iron", "bar", "axe", "ru", "dragonstone", "ring", "of", "run"};
+        Random random = new Random(7);
+        int n = 5_000;
+        int[] ids = new int[n];
+        String[] names = new String[n];
+        for (int i = 0; i < n; i++)
+        {
+            ids[i] = i + 1;
+            StringBuilder sb = new StringBuilder();
+            for (int w = random.nextInt(3) + 1; w > 0; w--) sb.append(sb.length() > 0 ? " " : "").append(words[random.nextInt(words.length)]);
+            names[i] = sb.toString();
+        }
+        ItemCatalog catalog = ItemCatalog.of(ids, names, new int[n]);
+
+        for (String query : new String[]{"rune", "ru", "dragon ring", "iron bar axe", "r"})
+        {
+            byte[] scores = new byte[n];
+            long[] matches = ItemSearchEngine.matchNames(catalog, query.split(" "), scores, () -> false);
+            int[] expected = new int[n];
+            int count = 0;
+            for (int row = 0; row < n; row++)
+                if (ItemSearchEngine.get(matches, row) && scores[row] <= ItemSearchEngine.PREFIX) expected[count++] = row;
+
+            int[] actual = catalog.rowsWithPrefix(query);
+            Arrays.sort(actual);
+            assertArrayEquals(query, Arrays.copyOf(expected, count), actual);
+        }
+    }
+}
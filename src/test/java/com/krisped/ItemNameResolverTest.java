@@ -0,0 +1,125 @@
+package com.krisped;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ItemNameResolverTest
+{
+    private static final ItemCatalog CATALOG = ItemCatalog.of(
+            new int[]{10, 11, 20, 21, 30, 31, 32, 40, 41, 50},
+            new String[]{"Shark", "Shark", "Iron bar", "Iron jar", "Bandos godsword", "Armadyl godsword",
+                    "Guthix godsword", "Dragon scimitar", "Rune scimitar", "Coif"},
+            new int[]{ItemCatalog.NOTED, ItemCatalog.NORMAL, ItemCatalog.NORMAL, ItemCatalog.NORMAL, ItemCatalog.NORMAL,
+                    ItemCatalog.NORMAL, ItemCatalog.NORMAL, ItemCatalog.NORMAL, ItemCatalog.NORMAL, ItemCatalog.NORMAL});
+
+    private final ItemNameResolver resolver = ItemNameResolver.forCatalog(CATALOG);
+
+    /* ================= Edit distance ================= */
+
+    @Test
+    public void distanceWithinTheBound()
+    {
+        int[] scratch = new int[64];
+        assertEquals(0, ItemNameResolver.distance("shark", "shark", 3, scratch));
+        assertEquals(3, ItemNameResolver.distance("kitten", "sitting", 3, scratch));
+        assertEquals(1, ItemNameResolver.distance("iron bar", "iron jar", 2, scratch));
+        assertEquals(2, ItemNameResolver.distance("", "ab", 2, scratch));
+    }
+
+    @Test
+    public void distanceStopsEarlyPastTheBound()
+    {
+        int[] scratch = new int[64];
+        // every row exceeds the bound long before the end: reported as max + 1, not the true 6
+        assertEquals(2, ItemNameResolver.distance("abcdef", "uvwxyz", 1, scratch));
+        // lengths alone already differ by more than the bound
+        assertEquals(3, ItemNameResolver.distance("coif", "dragon scimitar", 2, scratch));
+        assertTrue(ItemNameResolver.distance("kitten", "sitting", 2, scratch) > 2);
+    }
+
+    @Test
+    public void toleranceGrowsWithLength()
+    {
+        assertEquals(0, ItemNameResolver.tolerance(3));
+        assertEquals(1, ItemNameResolver.tolerance(4));
+        assertEquals(1, ItemNameResolver.tolerance(6));
+        assertEquals(2, ItemNameResolver.tolerance(7));
+        assertEquals(2, ItemNameResolver.tolerance(12));
+        assertEquals(3, ItemNameResolver.tolerance(13));
+    }
+
+    @Test
+    public void typosAreToleratedByLength()
+    {
+        assertEquals(ItemNameResolver.Kind.NONE, resolver.resolve("cof").kind);         // 3 chars: exact only
+        assertEquals(ItemNameResolver.Kind.TYPO, resolver.resolve("shrk").kind);        // 4 chars: one edit
+        assertEquals(ItemNameResolver.Kind.NONE, resolver.resolve("shrkk").kind);       // two edits are too many
+        assertEquals(ItemNameResolver.Kind.TYPO, resolver.resolve("rune scimtr").kind); // 11 chars: two edits
+        assertEquals(ItemNameResolver.Kind.NONE, resolver.resolve("dragn scimtr").kind); // 12 chars: three are too many
+        assertEquals(ItemNameResolver.Kind.TYPO, resolver.resolve("dragn scimitr").kind); // 13 chars: two edits
+    }
+
+    /* ================= Resolution ================= */
+
+    @Test
+    public void exactNamesPreferTheNormalItem()
+    {
+        ItemNameResolver.Resolution r = resolver.resolve("  SHARK ");
+        assertEquals(ItemNameResolver.Kind.EXACT, r.kind);
+        assertEquals(11, r.itemId);
+        assertNull(r.problem("shark"));
+    }
+
+    @Test
+    public void numericNamesAreIds()
+    {
+        ItemNameResolver.Resolution r = resolver.resolve("40");
+        assertEquals(ItemNameResolver.Kind.ID, r.kind);
+        assertEquals("Dragon scimitar", r.name);
+    }
+
+    @Test
+    public void typoTiesGoToTheAlphabeticallyFirstAndAreReported()
+    {
+        ItemNameResolver.Resolution r = resolver.resolve("iron car");
+        assertEquals(ItemNameResolver.Kind.TYPO, r.kind);
+        assertEquals(20, r.itemId);
+        assertEquals(Collections.singletonList("Iron jar"), r.alternatives);
+        assertTrue(r.ambiguous());
+        assertEquals("Ambiguous: iron car -> Iron bar (also Iron jar)", r.problem("iron car"));
+    }
+
+    @Test
+    public void partialTiesGoToTheShortestThenAlphabeticallyFirst()
+    {
+        ItemNameResolver.Resolution r = resolver.resolve("godsword");
+        assertEquals(ItemNameResolver.Kind.PARTIAL, r.kind);
+        assertEquals("Bandos godsword", r.name);
+        assertEquals(Collections.singletonList("Guthix godsword"), r.alternatives);
+
+        ItemNameResolver.Resolution unique = resolver.resolve("armadyl god");
+        assertEquals("Armadyl godsword", unique.name);
+        assertFalse(unique.ambiguous());
+    }
+
+    @Test
+    public void resolveAllIsKeyedByTrimmedNameAndResolvesDuplicatesOnce()
+    {
+        Map<String, ItemNameResolver.Resolution> out = resolver.resolveAll(
+                Arrays.asList("shark", " shark ", "godsword", "nothing like it", "godsword"));
+        assertEquals(new HashSet<>(Arrays.asList("shark", "godsword", "nothing like it")), out.keySet());
+        assertEquals(11, out.get("shark").itemId);
+        assertEquals("Bandos godsword", out.get("godsword").name);
+        assertFalse(out.get("nothing like it").found());
+        assertEquals("Item not found: nothing like it", out.get("nothing like it").problem("nothing like it"));
+    }
+}
@@ -0,0 +1,110 @@
+package com.krisped;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ItemSearchEngineTest
+{
+    /* ================= topK ================= */
+
+    @Test
+    public void topKOrdersByScoreThenRow()
+    {
+        byte[] scores = new byte[130];
+        long[] rows = bits(130, 3, 7, 64, 65, 129);
+        scores[3] = ItemSearchEngine.SUBSTRING;
+        scores[7] = ItemSearchEngine.EXACT;
+        scores[64] = ItemSearchEngine.WORD;
+        scores[65] = ItemSearchEngine.PREFIX;
+        scores[129] = ItemSearchEngine.EXACT;
+
+        assertArrayEquals(new int[]{7, 129, 65, 64, 3}, ItemSearchEngine.topK(rows, scores, 10));
+    }
+
+    @Test
+    public void topKKeepsOnlyTheBestK()
+    {
+        byte[] scores = new byte[200];
+        long[] rows = new long[4];
+        for (int row = 0; row < 200; row++)
+        {
+            rows[row >>> 6] |= 1L << row;
+            scores[row] = (byte) (3 - row % 4); // best tier on every fourth row
+        }
+
+        assertArrayEquals(new int[]{3, 7, 11}, ItemSearchEngine.topK(rows, scores, 3));
+    }
+
+    @Test
+    public void topKMatchesAFullSort()
+    {
+        Random random = new Random(42);
+        byte[] scores = new byte[1000];
+        long[] rows = new long[16];
+        for (int row = 0; row < scores.length; row++)
+        {
+            scores[row] = (byte) random.nextInt(4);
+            if (random.nextInt(3) == 0) rows[row >>> 6] |= 1L << row;
+        }
+
+        long[] keys = new long[ItemSearchEngine.count(rows)];
+        int n = 0;
+        for (int row = 0; row < scores.length; row++)
+            if (ItemSearchEngine.get(rows, row)) keys[n++] = ((long) scores[row] << 32) | row;
+        Arrays.sort(keys);
+        int[] expected = new int[50];
+        for (int i = 0; i < expected.length; i++) expected[i] = (int) keys[i];
+
+        assertArrayEquals(expected, ItemSearchEngine.topK(rows, scores, 50));
+    }
+
+    @Test
+    public void topKBounds()
+    {
+        byte[] scores = new byte[64];
+        long[] rows = bits(64, 1, 2);
+
+        assertEquals(2, ItemSearchEngine.topK(rows, scores, 5).length);
+        assertEquals(0, ItemSearchEngine.topK(rows, scores, 0).length);
+        assertEquals(0, ItemSearchEngine.topK(new long[1], scores, 5).length);
+        assertArrayEquals(new int[]{63}, ItemSearchEngine.topK(bits(64, 63), scores, 1));
+    }
+
+    /* ================= Score tiers ================= */
+
+    @Test
+    public void scoreTiers()
+    {
+        assertEquals(ItemSearchEngine.EXACT, score("shark", "shark"));
+        assertEquals(ItemSearchEngine.PREFIX, score("shark lure", "shark"));
+        assertEquals(ItemSearchEngine.WORD, score("raw shark", "shark"));
+        assertEquals(ItemSearchEngine.WORD, score("corrupted dragon scimitar", "dragon scim"));
+        assertEquals(ItemSearchEngine.SUBSTRING, score("sharkskin", "ark"));
+    }
+
+    @Test
+    public void scoreNeedsEveryTokenOnAWordBoundaryForWordTier()
+    {
+        assertEquals(ItemSearchEngine.WORD, score("rune platebody (g)", "plate rune"));
+        assertEquals(ItemSearchEngine.SUBSTRING, score("rune platebody", "rune body"));
+        // a later occurrence on a boundary still counts
+        assertEquals(ItemSearchEngine.WORD, score("xbludgeon bludgeon", "bludgeon"));
+    }
+
+    private static byte score(String name, String query)
+    {
+        return ItemSearchEngine.score(name, query, query.split(" "));
+    }
+
+    private static long[] bits(int size, int... set)
+    {
+        long[] out = new long[(size + 63) >>> 6];
+        for (int row : set) out[row >>> 6] |= 1L << row;
+        return out;
+    }
+}
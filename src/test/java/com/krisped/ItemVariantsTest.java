@@ -0,0 +1,56 @@
+package com.krisped;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ItemVariantsTest
+{
+    private static final ItemCatalog CATALOG = ItemCatalog.of(
+            new int[]{100, 101, 102, 200, 201, 202, 300, 301},
+            new String[]{"Amulet of glory(4)", "Amulet of glory", "Amulet of glory(t)", "Dharok's platebody 75",
+                    "Dharok's platebody", "Dharok's platebody 0", "Abyssal whip", "Abyssal whip (or)"},
+            new int[]{ItemCatalog.NORMAL, ItemCatalog.NORMAL, ItemCatalog.NORMAL, ItemCatalog.NORMAL,
+                    ItemCatalog.NORMAL, ItemCatalog.NORMAL, ItemCatalog.NORMAL, ItemCatalog.NORMAL});
+
+    private final ItemVariants variants = ItemVariants.forCatalog(CATALOG);
+
+    @Test
+    public void variantsMapToTheUnsuffixedBase()
+    {
+        assertEquals(101, variants.canonical(100));
+        assertEquals(101, variants.canonical(102));
+        assertEquals(201, variants.canonical(200));
+        assertEquals(201, variants.canonical(202));
+        assertEquals(300, variants.canonical(301));
+    }
+
+    @Test
+    public void groupsListEveryMemberAscending()
+    {
+        assertArrayEquals(new int[]{100, 101, 102}, variants.variants(101));
+        assertArrayEquals(new int[]{100, 101, 102}, variants.variants(102));
+        assertArrayEquals(new int[]{200, 201, 202}, variants.variants(200));
+        assertArrayEquals(new int[]{300, 301}, variants.variants(301));
+    }
+
+    @Test
+    public void unknownIdsAreTheirOwnGroup()
+    {
+        assertEquals(999, variants.canonical(999));
+        assertArrayEquals(new int[]{999}, variants.variants(999));
+        assertTrue(variants.equivalent(999, 999));
+        assertFalse(variants.equivalent(999, 101));
+    }
+
+    @Test
+    public void equivalenceFollowsTheGroups()
+    {
+        assertTrue(variants.equivalent(100, 102));
+        assertFalse(variants.equivalent(100, 200));
+        assertFalse(variants.equivalent(0, 100));
+    }
+}
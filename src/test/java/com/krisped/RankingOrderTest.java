@@ -0,0 +1,54 @@
+package com.krisped;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class RankingOrderTest
+{
+    // Rows as topK returns them (tier, then row); names give a different order within each tier
+    private static final ItemCatalog CATALOG = ItemCatalog.of(
+            new int[]{1, 2, 3, 4, 5, 6},
+            new String[]{"Bandos godsword", "Abyssal whip", "Coif", "Dragon boots", "Amulet of fury", "Zamorak cape"},
+            new int[6]);
+    private static final int[] ROWS = {1, 3, 0, 2, 4, 5};
+    private static final byte[] TIERS = {0, 0, 1, 1, 1, 2};
+
+    @Test
+    public void idOrder()
+    {
+        SearchResultCache.Ranking ranking = new SearchResultCache.Ranking(ROWS, TIERS, ROWS.length);
+
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5}, ranking.order(CATALOG, false, false));
+        assertArrayEquals(new int[]{1, 0, 4, 3, 2, 5}, ranking.order(CATALOG, false, true));
+    }
+
+    @Test
+    public void nameOrder()
+    {
+        SearchResultCache.Ranking ranking = new SearchResultCache.Ranking(ROWS, TIERS, ROWS.length);
+
+        // tier 0: Abyssal, Dragon; tier 1: Amulet, Bandos, Coif; tier 2: Zamorak
+        assertArrayEquals(new int[]{0, 1, 4, 2, 3, 5}, ranking.order(CATALOG, true, false));
+        assertArrayEquals(new int[]{1, 0, 3, 2, 4, 5}, ranking.order(CATALOG, true, true));
+    }
+
+    @Test
+    public void descendingLeavesTheCachedAscendingOrderIntact()
+    {
+        SearchResultCache.Ranking ranking = new SearchResultCache.Ranking(ROWS, TIERS, ROWS.length);
+
+        ranking.order(CATALOG, true, true);
+        assertArrayEquals(new int[]{0, 1, 4, 2, 3, 5}, ranking.order(CATALOG, true, false));
+    }
+
+    @Test
+    public void singleTierAndEmptyRankings()
+    {
+        SearchResultCache.Ranking single = new SearchResultCache.Ranking(new int[]{0, 2, 4}, new byte[]{3, 3, 3}, 3);
+        assertArrayEquals(new int[]{2, 1, 0}, single.order(CATALOG, false, true));
+
+        SearchResultCache.Ranking empty = new SearchResultCache.Ranking(new int[0], new byte[0], 0);
+        assertArrayEquals(new int[0], empty.order(CATALOG, true, true));
+    }
+}
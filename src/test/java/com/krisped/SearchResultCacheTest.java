@@ -0,0 +1,86 @@
+package com.krisped;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SearchResultCacheTest
+{
+    private static final SearchResultCache.Ranking RANKING = ranking();
+
+    @Before
+    public void empty()
+    {
+        SearchResultCache.clear();
+    }
+
+    @Test
+    public void queriesAreNormalized()
+    {
+        assertEquals("dragon scim", SearchResultCache.normalizeQuery("  Dragon \t SCIM* "));
+        assertEquals("rune", SearchResultCache.normalizeQuery("*ru*ne*"));
+        assertEquals("", SearchResultCache.normalizeQuery(" * "));
+    }
+
+    @Test
+    public void equivalentQueriesShareAnEntry()
+    {
+        SearchResultCache.put(1, 0, "dragon scim", RANKING);
+        assertSame(RANKING, SearchResultCache.get(1, 0, "Dragon  SCIM*"));
+    }
+
+    @Test
+    public void revisionFilterMaskAndQueryAreSeparateKeys()
+    {
+        SearchResultCache.put(1, ItemCatalog.WEARABLE, "shark", RANKING);
+
+        assertNotNull(SearchResultCache.get(1, ItemCatalog.WEARABLE, "shark"));
+        assertNull(SearchResultCache.get(2, ItemCatalog.WEARABLE, "shark"));
+        assertNull(SearchResultCache.get(1, 0, "shark"));
+        assertNull(SearchResultCache.get(1, ItemCatalog.WEARABLE | ItemCatalog.MEMBERS, "shark"));
+        assertNull(SearchResultCache.get(1, ItemCatalog.WEARABLE, "shark lure"));
+        // the separator cannot be forged by the query
+        SearchResultCache.put(1, 2, "x", RANKING);
+        assertNull(SearchResultCache.get(1, 0, "2|x"));
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvictedPastCapacity()
+    {
+        for (int i = 0; i < 64; i++) SearchResultCache.put(1, 0, "q" + i, RANKING);
+        SearchResultCache.get(1, 0, "q0"); // q0 is now the most recently used, q1 the eldest
+        SearchResultCache.put(1, 0, "q64", RANKING);
+
+        assertNotNull(SearchResultCache.get(1, 0, "q0"));
+        assertNull(SearchResultCache.get(1, 0, "q1"));
+        assertNotNull(SearchResultCache.get(1, 0, "q2"));
+        assertNotNull(SearchResultCache.get(1, 0, "q64"));
+        assertTrue(SearchResultCache.describe().endsWith("64/64 entries"));
+    }
+
+    @Test
+    public void hitRateAndDescribe()
+    {
+        assertEquals(0.0, SearchResultCache.hitRate(), 0.0);
+        assertEquals("Result cache: 0/0 hits (0%), 0/64 entries", SearchResultCache.describe());
+
+        SearchResultCache.put(1, 0, "shark", RANKING);
+        SearchResultCache.get(1, 0, "shark");
+        SearchResultCache.get(1, 0, "shark");
+        SearchResultCache.get(1, 0, "whip");
+        SearchResultCache.get(1, 0, "coif");
+
+        assertEquals(0.5, SearchResultCache.hitRate(), 0.0);
+        assertEquals("Result cache: 2/4 hits (50%), 1/64 entries", SearchResultCache.describe());
+    }
+
+    private static SearchResultCache.Ranking ranking()
+    {
+        return new SearchResultCache.Ranking(new int[]{0}, new byte[]{ItemSearchEngine.EXACT}, 1);
+    }
+}
@@ -0,0 +1,124 @@
+package com.krisped;
+
+import net.runelite.api.EquipmentInventorySlot;
+import org.junit.Test;
+
+import java.util.function.IntPredicate;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StatQueryTest
+{
+    private static final int SIZE = 150; // spans three bitset words
+    private static final int HEAD = EquipmentInventorySlot.HEAD.getSlotIdx();
+    private static final int BODY = EquipmentInventorySlot.BODY.getSlotIdx();
+
+    private static final ItemStatColumns COLUMNS = columns();
+
+    /** Every third row is not equipable; the rest alternate head/body with strength -3..3. */
+    private static ItemStatColumns columns()
+    {
+        ItemStatColumns c = new ItemStatColumns(1, SIZE);
+        for (int row = 0; row < SIZE; row++)
+        {
+            c.slot[row] = row % 3 == 0 ? -1 : row % 2 == 0 ? HEAD : BODY;
+            c.column(ItemStatColumns.Stat.STR)[row] = row % 7 - 3;
+            c.column(ItemStatColumns.Stat.PRAYER)[row] = row % 5;
+            c.column(ItemStatColumns.Stat.MDMG)[row] = row % 40; // tenths of a percent
+        }
+        return c;
+    }
+
+    /* ================= Parsing ================= */
+
+    @Test
+    public void clausesAndNameTokensAreSplit()
+    {
+        StatQuery q = StatQuery.parse("dragon str>=3 slot:head boots");
+        assertTrue(q.hasClauses());
+        assertArrayEquals(new String[]{"dragon", "boots"}, q.nameTokens());
+    }
+
+    @Test
+    public void unknownKeysAreNameTokens()
+    {
+        StatQuery q = StatQuery.parse("a>5 stab> slot:tail str>x");
+        assertFalse(q.hasClauses());
+        assertArrayEquals(new String[]{"a>5", "stab>", "slot:tail", "str>x"}, q.nameTokens());
+    }
+
+    @Test
+    public void unknownKeysLeaveOtherClausesWorking()
+    {
+        StatQuery q = StatQuery.parse("whip a>5 str>0");
+        assertArrayEquals(new String[]{"whip", "a>5"}, q.nameTokens());
+        assertSelects(q, row -> str(row) > 0);
+    }
+
+    /* ================= Operators ================= */
+
+    @Test
+    public void everyOperator()
+    {
+        assertSelects(StatQuery.parse("str>=1"), row -> str(row) >= 1);
+        assertSelects(StatQuery.parse("str<=-1"), row -> str(row) <= -1);
+        assertSelects(StatQuery.parse("str>0"), row -> str(row) > 0);
+        assertSelects(StatQuery.parse("str<0"), row -> str(row) < 0);
+        assertSelects(StatQuery.parse("str=2"), row -> str(row) == 2);
+        assertSelects(StatQuery.parse("str==2"), row -> str(row) == 2);
+        assertSelects(StatQuery.parse("str!=2"), row -> str(row) != 2);
+        assertSelects(StatQuery.parse("str>-3"), row -> str(row) > -3);
+    }
+
+    @Test
+    public void noClausesSelectsEveryEquipableRow()
+    {
+        assertSelects(StatQuery.parse("whip"), row -> true);
+    }
+
+    @Test
+    public void slotClausesAndAliases()
+    {
+        assertSelects(StatQuery.parse("slot:head"), row -> COLUMNS.slot[row] == HEAD);
+        assertSelects(StatQuery.parse("slot:helm"), row -> COLUMNS.slot[row] == HEAD);
+        assertSelects(StatQuery.parse("slot:chest"), row -> COLUMNS.slot[row] == BODY);
+        assertSelects(StatQuery.parse("pray>=2"), row -> row % 5 >= 2);
+    }
+
+    @Test
+    public void clausesAreCombined()
+    {
+        assertSelects(StatQuery.parse("slot:body str>=0 prayer<3"),
+                row -> COLUMNS.slot[row] == BODY && str(row) >= 0 && row % 5 < 3);
+    }
+
+    @Test
+    public void fractionalStatsAreScaled()
+    {
+        assertSelects(StatQuery.parse("mdmg>=2.5"), row -> row % 40 >= 25);
+        assertSelects(StatQuery.parse("mstr<1"), row -> row % 40 < 10);
+    }
+
+    @Test
+    public void hugeConstantsAreClamped()
+    {
+        assertSelects(StatQuery.parse("str<99999999999"), row -> true);
+        assertSelects(StatQuery.parse("str>-99999999999"), row -> true);
+    }
+
+    private static int str(int row)
+    {
+        return row % 7 - 3;
+    }
+
+    /** {@code q} selects exactly the equipable rows matching {@code expected}. */
+    private static void assertSelects(StatQuery q, IntPredicate expected)
+    {
+        long[] want = new long[(SIZE + 63) >>> 6];
+        for (int row = 0; row < SIZE; row++)
+            if (COLUMNS.slot[row] >= 0 && expected.test(row)) want[row >>> 6] |= 1L << row;
+        assertArrayEquals(want, q.evaluate(COLUMNS));
+    }
+}